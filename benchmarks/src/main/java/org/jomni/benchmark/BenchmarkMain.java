@@ -0,0 +1,35 @@
+/*
+ * Copyright: 2014 Jeremy Chone
+ * License: Apache V2 http://www.apache.org/licenses/LICENSE-2.0
+ */
+
+package org.jomni.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * <p>Entry point of benchmarks.jar.</p>
+ *
+ * <p>Same as the standard JMH main, but always adds the gc profiler (allocation rate, gc.alloc.rate.norm) and writes
+ * the results as json in jomni-benchmarks.json, so a run can be kept as the baseline for later comparisons.</p>
+ */
+public class BenchmarkMain {
+
+	public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+		CommandLineOptions cmdOptions = new CommandLineOptions(args);
+		Options options = new OptionsBuilder()
+				.parent(cmdOptions)
+				.addProfiler(GCProfiler.class)
+				.resultFormat(ResultFormatType.JSON)
+				.result("jomni-benchmarks.json")
+				.build();
+		new Runner(options).run();
+	}
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright: 2014 Jeremy Chone
+ * License: Apache V2 http://www.apache.org/licenses/LICENSE-2.0
+ */
+
+package org.jomni.benchmark;
+
+import org.jomni.ClassInfo;
+import org.jomni.JomniBuilder;
+import org.jomni.JomniMapper;
+import org.jomni.Omni;
+import org.jomni.test.app.Company;
+import org.jomni.test.app.Team;
+import org.jomni.test.app.User;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.jomni.util.Maps.mapOf;
+
+/**
+ * <p>Complex (POJO/Map) conversions, Omni.setAll and Omni.put with coercion, using the test app model.</p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ComplexConversionBenchmark {
+
+	private JomniMapper mapper;
+	private JomniMapper deepMapper;
+
+	private User user;
+	private Map userMap;
+	private Map<String, Object> typedUserMap;
+	private Map<String, Object> teamMap;
+
+	@Setup
+	public void setup() {
+		mapper = new JomniBuilder().build();
+		deepMapper = new JomniBuilder().setDeepMapping(true).build();
+
+		Company company = new Company();
+		company.setName("Nike");
+
+		user = new User();
+		user.setId(12L);
+		user.setUsername("johnd");
+		user.setSince(1997);
+		user.setRole(User.Role.admin);
+		user.setCompany(company);
+
+		// values needing coercion (Integer -> Long, String -> Integer, String -> Enum)
+		userMap = mapOf("id", 12, "username", "johnd", "since", "1997", "role", "admin");
+
+		// values already of the right type (identity per property)
+		typedUserMap = new HashMap<>();
+		typedUserMap.put("id", 12L);
+		typedUserMap.put("username", "johnd");
+		typedUserMap.put("since", 1997);
+		typedUserMap.put("role", User.Role.admin);
+
+		// aggregate root with 1000 children to be deep mapped
+		List<Map> members = new ArrayList<>();
+		for (int i = 0; i < 1000; i++) {
+			members.add(mapOf("id", i, "username", "user" + i, "since", "1997", "role", "admin"));
+		}
+		teamMap = mapOf("name", "core", "members", members);
+	}
+
+	@Benchmark
+	public HashMap pojoToHashMap() {
+		return mapper.as(HashMap.class, user);
+	}
+
+	@Benchmark
+	public Map pojoToCompactMap() {
+		return mapper.asCompactMap(user);
+	}
+
+	@Benchmark
+	public User mapToPojo() {
+		return mapper.as(User.class, userMap);
+	}
+
+	@Benchmark
+	public User typedMapToPojo() {
+		return mapper.as(User.class, typedUserMap);
+	}
+
+	@Benchmark
+	public User omniSetAllPojoToPojo() {
+		return mapper.omni(new User()).setAll(user).get();
+	}
+
+	@Benchmark
+	public User omniSetAllMapToPojo() {
+		return mapper.omni(new User()).setAll(userMap).get();
+	}
+
+	@Benchmark
+	public Map omniSetAllPojoToMap() {
+		return mapper.omni(new HashMap()).setAll(user).get();
+	}
+
+	@Benchmark
+	public User omniPutWithCoercion() {
+		Omni<User> omni = mapper.omni(new User());
+		omni.put("since", "1997");
+		omni.put("id", 12);
+		return omni.get();
+	}
+
+	@Benchmark
+	public Map omniSetAllMapToMap() {
+		return mapper.omni(new HashMap()).setAll(typedUserMap).get();
+	}
+
+	@Benchmark
+	public Object omniGetPath() {
+		return mapper.omni(user).get("company.name");
+	}
+
+	@Benchmark
+	public Team deepMapToTeam() {
+		return deepMapper.as(Team.class, teamMap);
+	}
+
+	@Benchmark
+	public ClassInfo buildClassInfo() {
+		// property scan and accessors generation (what a ClassInfo cache miss costs)
+		return new ClassInfo(User.class);
+	}
+}
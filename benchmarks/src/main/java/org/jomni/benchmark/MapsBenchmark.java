@@ -0,0 +1,88 @@
+/*
+ * Copyright: 2014 Jeremy Chone
+ * License: Apache V2 http://www.apache.org/licenses/LICENSE-2.0
+ */
+
+package org.jomni.benchmark;
+
+import org.jomni.util.Maps;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>Maps nested/flatten helpers over maps from 10 to 100k entries.</p>
+ *
+ * <p>Flat keys are of the form "group{g}.item{i}.prop{p}" (plus some single level ones) so that every entry goes
+ * through the nesting logic at different depths.</p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapsBenchmark {
+
+	@Param({"10", "1000", "100000"})
+	private int size;
+
+	private Map<String, Object> flatMap;
+	private Map<String, Object> nestedMap;
+	private Maps.PathSchema pathSchema;
+	private Map<String, Object> flatView;
+	private String[] paths;
+	private int pathIdx;
+
+	@Setup
+	public void setup() {
+		flatMap = new HashMap<>();
+		for (int i = 0; i < size; i++) {
+			String key;
+			switch (i % 4) {
+				case 0:
+					key = "prop" + i;
+					break;
+				case 1:
+					key = "group" + (i % 10) + ".prop" + i;
+					break;
+				default:
+					key = "group" + (i % 10) + ".item" + (i % 100) + ".prop" + i;
+			}
+			flatMap.put(key, i);
+		}
+		nestedMap = Maps.asNestedMap(flatMap);
+		pathSchema = Maps.pathSchemaOf(flatMap.keySet());
+		flatView = Maps.flatView(nestedMap);
+		paths = flatMap.keySet().toArray(new String[0]);
+	}
+
+	@Benchmark
+	public Map<String, Object> asNestedMap() {
+		return Maps.asNestedMap(flatMap);
+	}
+
+	@Benchmark
+	public Map<String, Object> pathSchemaAsNestedMap() {
+		return pathSchema.asNestedMap(flatMap);
+	}
+
+	@Benchmark
+	public Map<String, Object> asFlatMap() {
+		return Maps.asFlatMap(nestedMap);
+	}
+
+	@Benchmark
+	public Object nestedValue() {
+		String path = paths[pathIdx++ % paths.length];
+		return Maps.nestedValue(nestedMap, path);
+	}
+
+	@Benchmark
+	public Object flatViewGet() {
+		String path = paths[pathIdx++ % paths.length];
+		return flatView.get(path);
+	}
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright: 2014 Jeremy Chone
+ * License: Apache V2 http://www.apache.org/licenses/LICENSE-2.0
+ */
+
+package org.jomni.benchmark;
+
+import org.jomni.JomniBuilder;
+import org.jomni.JomniMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <p>JomniMapper.as(Class, value) for simple (TypeConverter based) conversions.</p>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SimpleConversionBenchmark {
+
+	private JomniMapper mapper;
+
+	private String longStr;
+	private Integer intVal;
+	private Long longVal;
+	private LocalDateTime ldt;
+	private java.sql.Timestamp timestamp;
+	// 1000 numbers, as decoded from JSON
+	private List<Object> numberList;
+	private int[] intArray;
+
+	@Setup
+	public void setup() {
+		mapper = new JomniBuilder().build();
+		longStr = "1997";
+		intVal = 1997;
+		longVal = 1997L;
+		ldt = LocalDateTime.of(2014, 12, 29, 15, 29, 46);
+		timestamp = new java.sql.Timestamp(System.currentTimeMillis());
+		numberList = new ArrayList<>();
+		intArray = new int[1000];
+		for (int i = 0; i < 1000; i++) {
+			numberList.add((i % 2 == 0) ? (Object) i : (Object) (i * 1.5));
+			intArray[i] = i;
+		}
+	}
+
+	@Benchmark
+	public Long stringToLong() {
+		return mapper.as(Long.class, longStr);
+	}
+
+	@Benchmark
+	public Long integerToLong() {
+		return mapper.as(Long.class, intVal);
+	}
+
+	@Benchmark
+	public BigDecimal numberToBigDecimal() {
+		return mapper.as(BigDecimal.class, longVal);
+	}
+
+	@Benchmark
+	public Date localDateTimeToDate() {
+		return mapper.as(Date.class, ldt);
+	}
+
+	@Benchmark
+	public LocalDateTime timestampToLocalDateTime() {
+		return mapper.as(LocalDateTime.class, timestamp);
+	}
+
+	@Benchmark
+	public Long identity() {
+		return mapper.as(Long.class, longVal);
+	}
+
+	@Benchmark
+	public double[] listToDoubleArray() {
+		return mapper.as(double[].class, numberList);
+	}
+
+	@Benchmark
+	public long[] intArrayToLongArray() {
+		return mapper.as(long[].class, intArray);
+	}
+}
@@ -0,0 +1,304 @@
+/*
+ * Copyright: 2014 Jeremy Chone
+ * License: Apache V2 http://www.apache.org/licenses/LICENSE-2.0
+ */
+
+package org.jomni.processor;
+
+import org.jomni.ClassAccessor;
+import org.jomni.JomniAccessor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.*;
+
+/**
+ * <p>Generate a ClassAccessor (named [ClassName]_JomniAccessor, in the same package) for each JomniAccessor class, and
+ * register them in META-INF/services/org.jomni.ClassAccessor.</p>
+ *
+ * <p>The properties follow the JavaBeans rules used by the ClassInfo introspection: a public getX()/isX() getter
+ * (is only for boolean), and an optional public setX(value) setter with the same type (chainable setters included).
+ * The property types are resolved for the annotated class (e.g., the T of an inherited BaseEntity&lt;Long&gt;.getId()
+ * is Long).</p>
+ */
+public class JomniAccessorProcessor extends AbstractProcessor {
+
+	static final String SUFFIX = "_JomniAccessor";
+
+	// the generated accessor class names (for the services file, written on the last round)
+	private final Set<String> accessorNames = new TreeSet<>();
+
+	@Override
+	public Set<String> getSupportedAnnotationTypes() {
+		return Collections.singleton(JomniAccessor.class.getCanonicalName());
+	}
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		for (TypeElement annotation : annotations) {
+			for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+				if (element.getKind() != ElementKind.CLASS) {
+					error(element, "@JomniAccessor only applies to classes");
+					continue;
+				}
+				TypeElement typeElement = (TypeElement) element;
+				if (typeElement.getModifiers().contains(Modifier.PRIVATE)
+						|| (typeElement.getNestingKind() == NestingKind.MEMBER && !typeElement.getModifiers().contains(Modifier.STATIC))) {
+					error(element, "@JomniAccessor class must be a non private top level or static nested class");
+					continue;
+				}
+				generateAccessor(typeElement);
+			}
+		}
+		if (roundEnv.processingOver() && !accessorNames.isEmpty()) {
+			writeServices();
+		}
+		return true;
+	}
+
+	// --------- Generation --------- //
+	private void generateAccessor(TypeElement typeElement) {
+		String packageName = processingEnv.getElementUtils().getPackageOf(typeElement).getQualifiedName().toString();
+		String className = accessorSimpleName(typeElement);
+		String qualifiedName = (packageName.isEmpty()) ? className : packageName + "." + className;
+		String objectType = typeElement.getQualifiedName().toString();
+
+		StringBuilder sb = new StringBuilder();
+		if (!packageName.isEmpty()) {
+			sb.append("package ").append(packageName).append(";\n\n");
+		}
+		sb.append("import org.jomni.ClassAccessor;\n\n");
+		sb.append("/**\n * Generated by jomni-processor for ").append(objectType).append(", do not edit.\n */\n");
+		sb.append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n");
+		sb.append("public final class ").append(className).append(" implements ClassAccessor<").append(objectType).append("> {\n\n");
+
+		sb.append("\tprivate static final ClassAccessor.Property[] PROPERTIES = {\n");
+		for (Property p : scanProperties(typeElement)) {
+			sb.append("\t\tnew ClassAccessor.Property(\"").append(p.name).append("\", ").append(classLiteral(p.type)).append(", ")
+					.append((p.genericType != null) ? p.genericType + ".class" : "null").append(", \"")
+					.append(p.getter.getSimpleName()).append("\", ")
+					.append((p.setter != null) ? "\"" + p.setter.getSimpleName() + "\"" : "null").append(") {\n");
+			sb.append("\t\t\t@Override\n\t\t\tpublic Object apply(Object obj) {\n");
+			sb.append("\t\t\t\treturn ((").append(objectType).append(") obj).").append(p.getter.getSimpleName()).append("();\n");
+			sb.append("\t\t\t}\n");
+			if (p.setter != null) {
+				sb.append("\n\t\t\t@Override\n\t\t\tpublic void accept(Object obj, Object value) {\n");
+				sb.append("\t\t\t\t((").append(objectType).append(") obj).").append(p.setter.getSimpleName())
+						.append("((").append(castType(p.type)).append(") value);\n");
+				sb.append("\t\t\t}\n");
+			}
+			sb.append("\t\t},\n");
+		}
+		sb.append("\t};\n\n");
+
+		sb.append("\t@Override\n\tpublic Class<").append(objectType).append("> getObjectClass() {\n");
+		sb.append("\t\treturn ").append(objectType).append(".class;\n\t}\n\n");
+		sb.append("\t@Override\n\tpublic ClassAccessor.Property[] getProperties() {\n");
+		sb.append("\t\treturn PROPERTIES.clone();\n\t}\n\n");
+		sb.append("\t@Override\n\tpublic ").append(objectType).append(" newInstance() {\n");
+		sb.append("\t\treturn ").append((hasPublicNoArgConstructor(typeElement)) ? "new " + objectType + "()" : "null").append(";\n\t}\n");
+		sb.append("}\n");
+
+		try {
+			JavaFileObject file = processingEnv.getFiler().createSourceFile(qualifiedName, typeElement);
+			try (Writer writer = file.openWriter()) {
+				writer.write(sb.toString());
+			}
+			accessorNames.add(qualifiedName);
+		} catch (IOException e) {
+			error(typeElement, "Cannot write " + qualifiedName + ": " + e);
+		}
+	}
+
+	/**
+	 * Write the services file, merged with the existing one (an incremental build only processes the recompiled
+	 * classes, so the accessors of the other classes must stay registered).
+	 */
+	private void writeServices() {
+		String resource = "META-INF/services/" + ClassAccessor.class.getName();
+		Set<String> names = new TreeSet<>(accessorNames);
+		try {
+			FileObject existing = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", resource);
+			try (BufferedReader reader = new BufferedReader(existing.openReader(true))) {
+				for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+					line = line.trim();
+					if (!line.isEmpty() && !line.startsWith("#")) {
+						names.add(line);
+					}
+				}
+			}
+		} catch (IOException e) {
+			// no existing services file
+		}
+		try {
+			FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", resource);
+			try (Writer writer = file.openWriter()) {
+				for (String name : names) {
+					writer.write(name);
+					writer.write("\n");
+				}
+			}
+		} catch (IOException e) {
+			processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Cannot write " + resource + ": " + e);
+		}
+	}
+	// --------- /Generation --------- //
+
+	// --------- Property Scan --------- //
+	private static class Property {
+		final String name;
+		final TypeMirror type;
+		final String genericType;
+		final ExecutableElement getter;
+		ExecutableElement setter;
+
+		Property(String name, TypeMirror type, String genericType, ExecutableElement getter) {
+			this.name = name;
+			this.type = type;
+			this.genericType = genericType;
+			this.getter = getter;
+		}
+	}
+
+	/**
+	 * @return the properties, sorted by name
+	 */
+	private Collection<Property> scanProperties(TypeElement typeElement) {
+		DeclaredType classType = (DeclaredType) typeElement.asType();
+		List<ExecutableElement> methods = ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(typeElement));
+
+		Map<String, Property> propertyByName = new TreeMap<>();
+		for (ExecutableElement method : methods) {
+			String methodName = method.getSimpleName().toString();
+			if (!isPublicInstance(method) || !method.getParameters().isEmpty()) {
+				continue;
+			}
+			TypeMirror returnType = ((ExecutableType) processingEnv.getTypeUtils().asMemberOf(classType, method)).getReturnType();
+			String name = null;
+			if (methodName.startsWith("get") && methodName.length() > 3 && returnType.getKind() != TypeKind.VOID
+					&& !methodName.equals("getClass")) {
+				name = decapitalize(methodName.substring(3));
+			} else if (methodName.startsWith("is") && methodName.length() > 2 && returnType.getKind() == TypeKind.BOOLEAN) {
+				name = decapitalize(methodName.substring(2));
+			}
+			if (name != null) {
+				Property existing = propertyByName.get(name);
+				// Note: like the Introspector, isX wins over getX
+				if (existing == null || methodName.startsWith("is")) {
+					propertyByName.put(name, new Property(name, returnType, genericType(returnType), method));
+				}
+			}
+		}
+
+		for (ExecutableElement method : methods) {
+			String methodName = method.getSimpleName().toString();
+			if (!isPublicInstance(method) || method.getParameters().size() != 1 || !methodName.startsWith("set") || methodName.length() <= 3) {
+				continue;
+			}
+			Property property = propertyByName.get(decapitalize(methodName.substring(3)));
+			if (property != null && property.setter == null) {
+				TypeMirror paramType = ((ExecutableType) processingEnv.getTypeUtils().asMemberOf(classType, method)).getParameterTypes().get(0);
+				if (processingEnv.getTypeUtils().isSameType(erasure(paramType), erasure(property.type))) {
+					property.setter = method;
+				}
+			}
+		}
+		return propertyByName.values();
+	}
+
+	private static boolean isPublicInstance(ExecutableElement method) {
+		return method.getModifiers().contains(Modifier.PUBLIC) && !method.getModifiers().contains(Modifier.STATIC);
+	}
+
+	private boolean hasPublicNoArgConstructor(TypeElement typeElement) {
+		if (typeElement.getModifiers().contains(Modifier.ABSTRACT)) {
+			return false;
+		}
+		for (ExecutableElement constructor : ElementFilter.constructorsIn(typeElement.getEnclosedElements())) {
+			if (constructor.getParameters().isEmpty() && constructor.getModifiers().contains(Modifier.PUBLIC)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Same rule as the ClassInfo introspection: the last type argument which is a class.
+	 */
+	private String genericType(TypeMirror type) {
+		String genericType = null;
+		if (type.getKind() == TypeKind.DECLARED) {
+			for (TypeMirror typeArgument : ((DeclaredType) type).getTypeArguments()) {
+				if (typeArgument.getKind() == TypeKind.DECLARED) {
+					genericType = erasure(typeArgument).toString();
+				}
+			}
+		}
+		return genericType;
+	}
+	// --------- /Property Scan --------- //
+
+	// --------- Helpers --------- //
+	private TypeMirror erasure(TypeMirror type) {
+		return processingEnv.getTypeUtils().erasure(type);
+	}
+
+	private String classLiteral(TypeMirror type) {
+		return (type.getKind().isPrimitive()) ? type.getKind().name().toLowerCase() + ".class" : erasure(type) + ".class";
+	}
+
+	private String castType(TypeMirror type) {
+		if (type.getKind().isPrimitive()) {
+			return processingEnv.getTypeUtils().boxedClass((javax.lang.model.type.PrimitiveType) type).getQualifiedName().toString();
+		}
+		return erasure(type).toString();
+	}
+
+	private static String accessorSimpleName(TypeElement typeElement) {
+		StringBuilder name = new StringBuilder(typeElement.getSimpleName());
+		for (Element e = typeElement.getEnclosingElement(); !(e instanceof PackageElement); e = e.getEnclosingElement()) {
+			name.insert(0, e.getSimpleName() + "_");
+		}
+		return name.append(SUFFIX).toString();
+	}
+
+	/**
+	 * Same as java.beans.Introspector.decapitalize ("FooBar" is "fooBar", but "URL" stays "URL")
+	 */
+	static String decapitalize(String name) {
+		if (name.length() > 1 && Character.isUpperCase(name.charAt(1)) && Character.isUpperCase(name.charAt(0))) {
+			return name;
+		}
+		return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+	}
+
+	private void error(Element element, String msg) {
+		processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, msg, element);
+	}
+	// --------- /Helpers --------- //
+}
@@ -0,0 +1,162 @@
+package org.jomni.processor;
+
+import org.jomni.ClassAccessor;
+import org.jomni.JomniBuilder;
+import org.jomni.JomniMapper;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.jomni.util.Maps.mapOf;
+import static org.junit.Assert.*;
+
+public class JomniAccessorProcessorTest {
+
+	private static final String SERVICES = "META-INF/services/org.jomni.ClassAccessor";
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testGeneratedAccessor() throws Exception {
+		File srcDir = folder.newFolder("src");
+		File outDir = folder.newFolder("out");
+		compile(outDir, writeSource(srcDir, "Base", BASE), writeSource(srcDir, "Item", ITEM), writeSource(srcDir, "Tag", TAG));
+
+		try (URLClassLoader loader = new URLClassLoader(new URL[]{outDir.toURI().toURL()}, getClass().getClassLoader())) {
+			Class itemClass = loader.loadClass("sample.Item");
+			ClassAccessor accessor = (ClassAccessor) loader.loadClass("sample.Item_JomniAccessor").newInstance();
+			assertSame(itemClass, accessor.getObjectClass());
+
+			// properties sorted by name, types resolved for Item (Base<Long>)
+			ClassAccessor.Property[] properties = accessor.getProperties();
+			List<String> names = new ArrayList<>();
+			for (ClassAccessor.Property property : properties) {
+				names.add(property.getName());
+			}
+			assertEquals(Arrays.asList("active", "code", "id", "name", "tags"), names);
+			assertEquals(Boolean.TYPE, properties[0].getType());
+			assertEquals("isActive", properties[0].getReadMethodName());
+			assertFalse(properties[1].isWritable());
+			assertEquals(Long.class, properties[2].getType());
+			assertEquals("setId", properties[2].getWriteMethodName());
+			assertTrue(properties[3].isWritable());
+			assertEquals(List.class, properties[4].getType());
+			assertEquals(String.class, properties[4].getGenericType());
+
+			// the accessor calls the getters/setters
+			Object item = accessor.newInstance();
+			properties[2].accept(item, 12L);
+			properties[3].accept(item, "shoe");
+			assertEquals("shoe", properties[3].apply(item));
+			assertEquals("item-12", properties[1].apply(item));
+
+			// nested class accessor, and used by the mapper
+			assertNotNull(loader.loadClass("sample.Item_Part_JomniAccessor"));
+			JomniMapper mapper = new JomniBuilder().setServiceAccessors(false).addClassAccessor(accessor).build();
+			Object mapped = mapper.as(itemClass, mapOf("id", "13", "name", "hat"));
+			assertEquals(mapOf("active", false, "code", "item-13", "id", 13L, "name", "hat", "tags", null), mapper.asMap(mapped));
+		}
+
+		assertEquals(Arrays.asList("sample.Item_JomniAccessor", "sample.Item_Part_JomniAccessor", "sample.Tag_JomniAccessor"), services(outDir));
+	}
+
+	@Test
+	public void testIncrementalServices() throws Exception {
+		File srcDir = folder.newFolder("src");
+		File outDir = folder.newFolder("out");
+		File base = writeSource(srcDir, "Base", BASE);
+		compile(outDir, base, writeSource(srcDir, "Item", ITEM), writeSource(srcDir, "Tag", TAG));
+
+		// only Tag recompiled, the Item accessors stay registered
+		compile(outDir, writeSource(srcDir, "Tag", TAG));
+		assertEquals(Arrays.asList("sample.Item_JomniAccessor", "sample.Item_Part_JomniAccessor", "sample.Tag_JomniAccessor"), services(outDir));
+	}
+
+	// --------- Helpers --------- //
+	private void compile(File outDir, File... sources) throws IOException {
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+		try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8)) {
+			String classpath = System.getProperty("java.class.path") + File.pathSeparator + outDir.getPath();
+			List<String> options = Arrays.asList("-d", outDir.getPath(), "-classpath", classpath);
+			JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics, options, null,
+					fileManager.getJavaFileObjects(sources));
+			task.setProcessors(Arrays.asList(new JomniAccessorProcessor()));
+			boolean success = task.call();
+			for (Diagnostic diagnostic : diagnostics.getDiagnostics()) {
+				if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+					fail(diagnostic.toString());
+				}
+			}
+			assertTrue(success);
+		}
+	}
+
+	private static File writeSource(File srcDir, String className, String source) throws IOException {
+		File file = new File(srcDir, "sample/" + className + ".java");
+		file.getParentFile().mkdirs();
+		Files.write(file.toPath(), source.getBytes(StandardCharsets.UTF_8));
+		return file;
+	}
+
+	private static List<String> services(File outDir) throws IOException {
+		return Files.readAllLines(new File(outDir, SERVICES).toPath(), StandardCharsets.UTF_8);
+	}
+
+	private static final String BASE = "package sample;\n"
+			+ "public class Base<I> {\n"
+			+ "	private I id;\n"
+			+ "	public I getId() { return id; }\n"
+			+ "	public void setId(I id) { this.id = id; }\n"
+			+ "}\n";
+
+	private static final String ITEM = "package sample;\n"
+			+ "import java.util.List;\n"
+			+ "import org.jomni.JomniAccessor;\n"
+			+ "@JomniAccessor\n"
+			+ "public class Item extends Base<Long> {\n"
+			+ "	private String name;\n"
+			+ "	private boolean active;\n"
+			+ "	private List<String> tags;\n"
+			+ "	public String getName() { return name; }\n"
+			+ "	public Item setName(String name) { this.name = name; return this; }\n"
+			+ "	public boolean isActive() { return active; }\n"
+			+ "	public void setActive(boolean active) { this.active = active; }\n"
+			+ "	public List<String> getTags() { return tags; }\n"
+			+ "	public void setTags(List<String> tags) { this.tags = tags; }\n"
+			+ "	public String getCode() { return \"item-\" + getId(); }\n"
+			+ "	@JomniAccessor\n"
+			+ "	public static class Part {\n"
+			+ "		private int count;\n"
+			+ "		public int getCount() { return count; }\n"
+			+ "		public void setCount(int count) { this.count = count; }\n"
+			+ "	}\n"
+			+ "}\n";
+
+	private static final String TAG = "package sample;\n"
+			+ "import org.jomni.JomniAccessor;\n"
+			+ "@JomniAccessor\n"
+			+ "public class Tag {\n"
+			+ "	private String label;\n"
+			+ "	public String getLabel() { return label; }\n"
+			+ "	public void setLabel(String label) { this.label = label; }\n"
+			+ "}\n";
+	// --------- /Helpers --------- //
+}
@@ -0,0 +1,347 @@
+/*
+ * Copyright: 2014 Jeremy Chone
+ * License: Apache V2 http://www.apache.org/licenses/LICENSE-2.0
+ */
+
+package org.jomni;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Executable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * <p>Build the fast property accessors (reader Function and writer BiConsumer) for the read/write methods, and the
+ * instantiators (Supplier for the no-arg constructor, Function of the arguments for the creator constructor).</p>
+ *
+ * <p>When the method is public and visible from jomni's classloader, the accessor is a LambdaMetafactory generated
+ * lambda (i.e., a direct call, inlined by the JIT as any lambda). Otherwise (non public class, other classloader,
+ * ...), it falls back to a MethodHandle based one.</p>
+ *
+ * <p>The field accessors (see JomniBuilder.setFieldAccess) are MethodHandle field getters/setters.</p>
+ */
+class Accessors {
+
+	private static final MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+	static Function<Object, Object> reader(Method readMethod) {
+		if (canUseLambdaMetafactory(readMethod)) {
+			try {
+				MethodType instantiatedType = MethodType.methodType(wrap(readMethod.getReturnType()), readMethod.getDeclaringClass());
+				CallSite site = LambdaMetafactory.metafactory(lookup, "apply", MethodType.methodType(Function.class),
+						MethodType.methodType(Object.class, Object.class), lookup.unreflect(readMethod), instantiatedType);
+				return (Function<Object, Object>) site.getTarget().invoke();
+			} catch (Throwable e) {
+				// fall back on the MethodHandle one
+			}
+		}
+
+		MethodHandle mh = unreflect(readMethod);
+		if (mh == null) {
+			return (obj) -> {
+				try {
+					return readMethod.invoke(obj);
+				} catch (Exception e) {
+					throw new RuntimeException(e);
+				}
+			};
+		}
+		MethodHandle readHandle = mh.asType(MethodType.methodType(Object.class, Object.class));
+		return (obj) -> {
+			try {
+				return readHandle.invokeExact(obj);
+			} catch (RuntimeException | Error e) {
+				throw e;
+			} catch (Throwable e) {
+				throw new RuntimeException(e);
+			}
+		};
+	}
+
+	static BiConsumer<Object, Object> writer(Method writeMethod) {
+		if (canUseLambdaMetafactory(writeMethod)) {
+			try {
+				// Note: the instantiated type use the wrapper type, so that the lambda unbox the values for primitive setters.
+				MethodType instantiatedType = MethodType.methodType(void.class, writeMethod.getDeclaringClass(), wrap(writeMethod.getParameterTypes()[0]));
+				CallSite site = LambdaMetafactory.metafactory(lookup, "accept", MethodType.methodType(BiConsumer.class),
+						MethodType.methodType(void.class, Object.class, Object.class), lookup.unreflect(writeMethod), instantiatedType);
+				return (BiConsumer<Object, Object>) site.getTarget().invoke();
+			} catch (Throwable e) {
+				// fall back on the MethodHandle one
+			}
+		}
+
+		MethodHandle mh = unreflect(writeMethod);
+		if (mh == null) {
+			return (obj, value) -> {
+				try {
+					writeMethod.invoke(obj, value);
+				} catch (Exception e) {
+					throw new RuntimeException(e);
+				}
+			};
+		}
+		// Note: the return type is dropped to support the chainable setters.
+		MethodHandle writeHandle = mh.asType(MethodType.methodType(void.class, Object.class, Object.class));
+		return (obj, value) -> {
+			try {
+				writeHandle.invokeExact(obj, value);
+			} catch (RuntimeException | Error e) {
+				throw e;
+			} catch (Throwable e) {
+				throw new RuntimeException(e);
+			}
+		};
+	}
+
+	/**
+	 * Return the primitive writer (e.g., ObjLongConsumer for a long setter) as a LambdaMetafactory generated lambda,
+	 * or null if it cannot be generated (the boxed writer should be used then).
+	 *
+	 * @param functionalInterface ObjLongConsumer, ObjIntConsumer, or ObjDoubleConsumer
+	 */
+	static <F> F primitiveWriter(Method writeMethod, Class<F> functionalInterface) {
+		Class<?> paramType = writeMethod.getParameterTypes()[0];
+		if (canUseLambdaMetafactory(writeMethod)) {
+			try {
+				CallSite site = LambdaMetafactory.metafactory(lookup, "accept", MethodType.methodType(functionalInterface),
+						MethodType.methodType(void.class, Object.class, paramType), lookup.unreflect(writeMethod),
+						MethodType.methodType(void.class, writeMethod.getDeclaringClass(), paramType));
+				return (F) site.getTarget().invoke();
+			} catch (Throwable e) {
+				// the boxed writer will be used
+			}
+		}
+		return null;
+	}
+
+	static Supplier<Object> instantiator(Constructor constructor) {
+		if (canUseLambdaMetafactory(constructor)) {
+			try {
+				CallSite site = LambdaMetafactory.metafactory(lookup, "get", MethodType.methodType(Supplier.class),
+						MethodType.methodType(Object.class), lookup.unreflectConstructor(constructor),
+						MethodType.methodType(constructor.getDeclaringClass()));
+				return (Supplier<Object>) site.getTarget().invoke();
+			} catch (Throwable e) {
+				// fall back on the MethodHandle one
+			}
+		}
+
+		MethodHandle mh = unreflectConstructor(constructor);
+		if (mh == null) {
+			return () -> {
+				try {
+					return constructor.newInstance();
+				} catch (Exception e) {
+					throw new RuntimeException(e);
+				}
+			};
+		}
+		MethodHandle newHandle = mh.asType(MethodType.methodType(Object.class));
+		return () -> {
+			try {
+				return newHandle.invokeExact();
+			} catch (RuntimeException | Error e) {
+				throw e;
+			} catch (Throwable e) {
+				throw new RuntimeException(e);
+			}
+		};
+	}
+
+	/**
+	 * Return the function calling this constructor with the arguments array (the arguments are unboxed as needed).
+	 */
+	static Function<Object[], Object> creator(Constructor constructor) {
+		MethodHandle mh = unreflectConstructor(constructor);
+		if (mh == null) {
+			return (args) -> {
+				try {
+					return constructor.newInstance(args);
+				} catch (Exception e) {
+					throw new RuntimeException(e);
+				}
+			};
+		}
+		MethodHandle newHandle = mh.asSpreader(Object[].class, constructor.getParameterCount())
+				.asType(MethodType.methodType(Object.class, Object[].class));
+		return (args) -> {
+			try {
+				return newHandle.invokeExact(args);
+			} catch (RuntimeException | Error e) {
+				throw e;
+			} catch (Throwable e) {
+				throw new RuntimeException(e);
+			}
+		};
+	}
+
+	// --------- Field Accessors --------- //
+	/**
+	 * @return the MethodHandle field getter based reader, or null if the field cannot be accessed.
+	 */
+	static Function<Object, Object> fieldReader(Field field) {
+		MethodHandle mh = unreflectField(field, false);
+		if (mh == null) {
+			return null;
+		}
+		MethodHandle getHandle = mh.asType(MethodType.methodType(Object.class, Object.class));
+		return (obj) -> {
+			try {
+				return getHandle.invokeExact(obj);
+			} catch (RuntimeException | Error e) {
+				throw e;
+			} catch (Throwable e) {
+				throw new RuntimeException(e);
+			}
+		};
+	}
+
+	/**
+	 * @return the MethodHandle field setter based writer, or null if the field cannot be accessed (or is final).
+	 */
+	static BiConsumer<Object, Object> fieldWriter(Field field) {
+		if (Modifier.isFinal(field.getModifiers())) {
+			return null;
+		}
+		MethodHandle mh = unreflectField(field, true);
+		if (mh == null) {
+			return null;
+		}
+		MethodHandle setHandle = mh.asType(MethodType.methodType(void.class, Object.class, Object.class));
+		return (obj, value) -> {
+			try {
+				setHandle.invokeExact(obj, value);
+			} catch (RuntimeException | Error e) {
+				throw e;
+			} catch (Throwable e) {
+				throw new RuntimeException(e);
+			}
+		};
+	}
+	// --------- /Field Accessors --------- //
+
+	// --------- Helpers --------- //
+	/**
+	 * @return the default value for a primitive class (e.g., 0 for int), null for the other classes.
+	 */
+	static Object defaultValue(Class<?> cls) {
+		if (!cls.isPrimitive()) return null;
+		if (cls == Integer.TYPE) return 0;
+		if (cls == Long.TYPE) return 0L;
+		if (cls == Boolean.TYPE) return false;
+		if (cls == Double.TYPE) return 0d;
+		if (cls == Float.TYPE) return 0f;
+		if (cls == Short.TYPE) return (short) 0;
+		if (cls == Byte.TYPE) return (byte) 0;
+		if (cls == Character.TYPE) return (char) 0;
+		return null;
+	}
+
+	static Class<?> wrap(Class<?> cls) {
+		if (!cls.isPrimitive()) {
+			return cls;
+		}
+		if (cls == Integer.TYPE) return Integer.class;
+		if (cls == Long.TYPE) return Long.class;
+		if (cls == Boolean.TYPE) return Boolean.class;
+		if (cls == Double.TYPE) return Double.class;
+		if (cls == Float.TYPE) return Float.class;
+		if (cls == Short.TYPE) return Short.class;
+		if (cls == Byte.TYPE) return Byte.class;
+		if (cls == Character.TYPE) return Character.class;
+		return Void.class;
+	}
+
+	/**
+	 * The generated lambda class is defined in jomni's classloader, so the method must be public, as well as its
+	 * declaring class (and enclosing classes), and the types must be visible from jomni's classloader.
+	 */
+	private static boolean canUseLambdaMetafactory(Executable method) {
+		if (!Modifier.isPublic(method.getModifiers())) {
+			return false;
+		}
+		for (Class<?> cls = method.getDeclaringClass(); cls != null; cls = cls.getEnclosingClass()) {
+			if (!Modifier.isPublic(cls.getModifiers())) {
+				return false;
+			}
+		}
+		if (!isVisible(method.getDeclaringClass())) {
+			return false;
+		}
+		if (method instanceof Method && !isVisible(((Method) method).getReturnType())) {
+			return false;
+		}
+		for (Class<?> paramType : method.getParameterTypes()) {
+			if (!isVisible(paramType)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isVisible(Class<?> cls) {
+		while (cls.isArray()) {
+			cls = cls.getComponentType();
+		}
+		if (cls.isPrimitive() || cls.getClassLoader() == null) {
+			return true;
+		}
+		try {
+			return Class.forName(cls.getName(), false, Accessors.class.getClassLoader()) == cls;
+		} catch (ClassNotFoundException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Return the MethodHandle for this method, or null if it cannot be accessed by MethodHandle.
+	 */
+	private static MethodHandle unreflect(Method method) {
+		try {
+			method.setAccessible(true);
+		} catch (RuntimeException e) {
+			// might fail with the module system, unreflect might still work if public
+		}
+		try {
+			return lookup.unreflect(method);
+		} catch (IllegalAccessException e) {
+			return null;
+		}
+	}
+	private static MethodHandle unreflectConstructor(Constructor constructor) {
+		try {
+			constructor.setAccessible(true);
+		} catch (RuntimeException e) {
+			// might fail with the module system, unreflect might still work if public
+		}
+		try {
+			return lookup.unreflectConstructor(constructor);
+		} catch (IllegalAccessException e) {
+			return null;
+		}
+	}
+
+	private static MethodHandle unreflectField(Field field, boolean setter) {
+		try {
+			field.setAccessible(true);
+		} catch (RuntimeException e) {
+			// might fail with the module system, unreflect might still work if public
+		}
+		try {
+			return (setter) ? lookup.unreflectSetter(field) : lookup.unreflectGetter(field);
+		} catch (IllegalAccessException e) {
+			return null;
+		}
+	}
+	// --------- /Helpers --------- //
+}
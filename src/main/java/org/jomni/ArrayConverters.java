@@ -0,0 +1,181 @@
+/*
+ * Copyright: 2014 Jeremy Chone
+ * License: Apache V2 http://www.apache.org/licenses/LICENSE-2.0
+ */
+
+package org.jomni;
+
+import java.util.ArrayList;
+import java.util.Collection;
+
+/**
+ * <p>Conversions between Collections / Object arrays and the long[], int[], double[], and byte[] primitive arrays, as
+ * well as the primitive array widenings (e.g., int[] to long[]). Registered in the ConverterRegistry.</p>
+ *
+ * <p>Each conversion is a single loop over the values, without any per element converter lookup nor boxing of the
+ * results. The elements can be Numbers (converted as with NumberConverters, so checked or not) or Strings (parsed).
+ * Null elements are converted to 0.</p>
+ */
+public class ArrayConverters {
+
+	// --------- To Primitive Arrays --------- //
+	public static long[] toLongArray(Collection<?> values, boolean checked) {
+		return toLongArray(values.toArray(), checked);
+	}
+
+	public static long[] toLongArray(Object[] values, boolean checked) {
+		long[] result = new long[values.length];
+		for (int i = 0; i < values.length; i++) {
+			Object v = values[i];
+			if (v instanceof Number) {
+				result[i] = NumberConverters.toLong((Number) v, checked);
+			} else if (v != null) {
+				result[i] = Long.parseLong(string(v, "long"));
+			}
+		}
+		return result;
+	}
+
+	public static int[] toIntArray(Collection<?> values, boolean checked) {
+		return toIntArray(values.toArray(), checked);
+	}
+
+	public static int[] toIntArray(Object[] values, boolean checked) {
+		int[] result = new int[values.length];
+		for (int i = 0; i < values.length; i++) {
+			Object v = values[i];
+			if (v instanceof Number) {
+				result[i] = NumberConverters.toInt((Number) v, checked);
+			} else if (v != null) {
+				result[i] = Integer.parseInt(string(v, "int"));
+			}
+		}
+		return result;
+	}
+
+	public static double[] toDoubleArray(Collection<?> values, boolean checked) {
+		return toDoubleArray(values.toArray(), checked);
+	}
+
+	public static double[] toDoubleArray(Object[] values, boolean checked) {
+		double[] result = new double[values.length];
+		for (int i = 0; i < values.length; i++) {
+			Object v = values[i];
+			if (v instanceof Number) {
+				result[i] = NumberConverters.toDouble((Number) v, checked);
+			} else if (v != null) {
+				result[i] = Double.parseDouble(string(v, "double"));
+			}
+		}
+		return result;
+	}
+
+	public static byte[] toByteArray(Collection<?> values, boolean checked) {
+		return toByteArray(values.toArray(), checked);
+	}
+
+	public static byte[] toByteArray(Object[] values, boolean checked) {
+		byte[] result = new byte[values.length];
+		for (int i = 0; i < values.length; i++) {
+			Object v = values[i];
+			if (v instanceof Number) {
+				result[i] = NumberConverters.toByte((Number) v, checked);
+			} else if (v != null) {
+				result[i] = Byte.parseByte(string(v, "byte"));
+			}
+		}
+		return result;
+	}
+	// --------- /To Primitive Arrays --------- //
+
+	// --------- To List --------- //
+	public static ArrayList<Long> toList(long[] values) {
+		ArrayList<Long> list = new ArrayList<>(values.length);
+		for (long v : values) {
+			list.add(v);
+		}
+		return list;
+	}
+
+	public static ArrayList<Integer> toList(int[] values) {
+		ArrayList<Integer> list = new ArrayList<>(values.length);
+		for (int v : values) {
+			list.add(v);
+		}
+		return list;
+	}
+
+	public static ArrayList<Double> toList(double[] values) {
+		ArrayList<Double> list = new ArrayList<>(values.length);
+		for (double v : values) {
+			list.add(v);
+		}
+		return list;
+	}
+
+	public static ArrayList<Byte> toList(byte[] values) {
+		ArrayList<Byte> list = new ArrayList<>(values.length);
+		for (byte v : values) {
+			list.add(v);
+		}
+		return list;
+	}
+	// --------- /To List --------- //
+
+	// --------- Widening --------- //
+	public static long[] toLongArray(int[] values) {
+		long[] result = new long[values.length];
+		for (int i = 0; i < values.length; i++) {
+			result[i] = values[i];
+		}
+		return result;
+	}
+
+	public static long[] toLongArray(byte[] values) {
+		long[] result = new long[values.length];
+		for (int i = 0; i < values.length; i++) {
+			result[i] = values[i];
+		}
+		return result;
+	}
+
+	public static int[] toIntArray(byte[] values) {
+		int[] result = new int[values.length];
+		for (int i = 0; i < values.length; i++) {
+			result[i] = values[i];
+		}
+		return result;
+	}
+
+	public static double[] toDoubleArray(long[] values) {
+		double[] result = new double[values.length];
+		for (int i = 0; i < values.length; i++) {
+			result[i] = values[i];
+		}
+		return result;
+	}
+
+	public static double[] toDoubleArray(int[] values) {
+		double[] result = new double[values.length];
+		for (int i = 0; i < values.length; i++) {
+			result[i] = values[i];
+		}
+		return result;
+	}
+
+	public static double[] toDoubleArray(byte[] values) {
+		double[] result = new double[values.length];
+		for (int i = 0; i < values.length; i++) {
+			result[i] = values[i];
+		}
+		return result;
+	}
+	// --------- /Widening --------- //
+
+	private static String string(Object value, String typeName) {
+		if (value instanceof String) {
+			return (String) value;
+		}
+		throw new IllegalArgumentException("Cannot convert array element " + value + " (" + value.getClass().getName() + ") to " + typeName);
+	}
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright: 2014 Jeremy Chone
+ * License: Apache V2 http://www.apache.org/licenses/LICENSE-2.0
+ */
+
+package org.jomni;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * <p>Map view backed by a POJO (see JomniMapper.mapView). The key set is the fixed ClassInfo property set, and the
+ * values are read through the property readers on demand (nothing is copied).</p>
+ *
+ * <p>When writable, put writes through to the POJO with the same coercion as Omni.put. The key set cannot change, so
+ * remove and clear are not supported.</p>
+ */
+class BeanMapView extends AbstractMap<String, Object> {
+
+	private final JomniMapper mapper;
+	private final ClassInfo classInfo;
+	private final Object obj;
+	private final boolean writable;
+
+	BeanMapView(JomniMapper mapper, Object obj, boolean writable) {
+		this.mapper = mapper;
+		this.classInfo = mapper.getClassInfo(obj.getClass());
+		this.obj = obj;
+		this.writable = writable;
+	}
+
+	@Override
+	public Object get(Object key) {
+		PropInfo propInfo = (key instanceof String) ? classInfo.getPropInfo((String) key) : null;
+		return (propInfo != null) ? read(propInfo) : null;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return (key instanceof String) && classInfo.hasProperty((String) key);
+	}
+
+	@Override
+	public int size() {
+		return classInfo.getPropInfos().size();
+	}
+
+	@Override
+	public Set<String> keySet() {
+		return Collections.unmodifiableSet(classInfo.getPropertyNames());
+	}
+
+	@Override
+	public Object put(String key, Object value) {
+		PropInfo propInfo = classInfo.getPropInfo(key);
+		return write(propInfo, key, value);
+	}
+
+	@Override
+	public Object remove(Object key) {
+		throw new UnsupportedOperationException("Cannot remove a property from a POJO map view");
+	}
+
+	@Override
+	public void clear() {
+		throw new UnsupportedOperationException("Cannot remove a property from a POJO map view");
+	}
+
+	@Override
+	public Set<Entry<String, Object>> entrySet() {
+		return new AbstractSet<Entry<String, Object>>() {
+			@Override
+			public Iterator<Entry<String, Object>> iterator() {
+				Iterator<PropInfo> propInfos = classInfo.getPropInfos().iterator();
+				return new Iterator<Entry<String, Object>>() {
+					@Override
+					public boolean hasNext() {
+						return propInfos.hasNext();
+					}
+
+					@Override
+					public Entry<String, Object> next() {
+						return new PropEntry(propInfos.next());
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return BeanMapView.this.size();
+			}
+		};
+	}
+
+	// --------- Helpers --------- //
+	private Object read(PropInfo propInfo) {
+		Function<Object, Object> reader = propInfo.getReader();
+		return (reader != null) ? reader.apply(obj) : null;
+	}
+
+	private Object write(PropInfo propInfo, String key, Object value) {
+		if (!writable) {
+			throw new UnsupportedOperationException("POJO map view is read-only");
+		}
+		if (propInfo == null || propInfo.getWriter() == null) {
+			throw new IllegalArgumentException("No writable property " + key + " in " + classInfo.getObjectClass().getName());
+		}
+		Object old = read(propInfo);
+		ConvertInfo info = (value != null) ? mapper.getConvertInfo(value.getClass(), propInfo.getType()) : null;
+		propInfo.convertAndWrite(mapper, info, obj, value);
+		return old;
+	}
+
+	private class PropEntry implements Entry<String, Object> {
+		private final PropInfo propInfo;
+
+		PropEntry(PropInfo propInfo) {
+			this.propInfo = propInfo;
+		}
+
+		@Override
+		public String getKey() {
+			return propInfo.getName();
+		}
+
+		@Override
+		public Object getValue() {
+			return read(propInfo);
+		}
+
+		@Override
+		public Object setValue(Object value) {
+			return write(propInfo, propInfo.getName(), value);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof Entry)) {
+				return false;
+			}
+			Entry e = (Entry) o;
+			return Objects.equals(getKey(), e.getKey()) && Objects.equals(getValue(), e.getValue());
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hashCode(getKey()) ^ Objects.hashCode(getValue());
+		}
+
+		@Override
+		public String toString() {
+			return getKey() + "=" + getValue();
+		}
+	}
+	// --------- /Helpers --------- //
+}
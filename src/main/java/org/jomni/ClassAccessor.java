@@ -0,0 +1,89 @@
+/*
+ * Copyright: 2014 Jeremy Chone
+ * License: Apache V2 http://www.apache.org/licenses/LICENSE-2.0
+ */
+
+package org.jomni;
+
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * <p>SPI of a compiled (reflection free) property accessor for a class, usually generated by the jomni-processor
+ * annotation processor for the JomniAccessor classes.</p>
+ *
+ * <p>The JomniMapper discovers the implementations with the ServiceLoader (META-INF/services/org.jomni.ClassAccessor),
+ * or they can be added with JomniBuilder.addClassAccessor. The ClassInfo of a class with a ClassAccessor takes its
+ * properties from it, rather than from the PropertyScanner.</p>
+ *
+ * <p>Only the property scan and accessor generation are skipped: the ClassInfo still looks up the constructors by
+ * reflection (to find the no-arg or creator constructor), and the property Methods are looked up only if
+ * PropInfo.getReadMethod/getWriteMethod get called.</p>
+ */
+public interface ClassAccessor<T> {
+
+	Class<T> getObjectClass();
+
+	/**
+	 * @return the readable properties of the class (a property is included only if it has a getter)
+	 */
+	Property[] getProperties();
+
+	/**
+	 * @return a new instance with the no-arg constructor, or null if the class does not have one
+	 */
+	T newInstance();
+
+	/**
+	 * <p>A property reader (apply) and writer (accept, for the writable properties only).</p>
+	 */
+	abstract class Property implements Function<Object, Object>, BiConsumer<Object, Object> {
+		private final String name;
+		private final Class<?> type;
+		private final Class<?> genericType;
+		private final String readMethodName;
+		private final String writeMethodName;
+
+		/**
+		 * @param genericType the type argument of a parameterized property type (e.g., User for List&lt;User&gt;),
+		 *                    or null
+		 * @param writeMethodName null if the property is read only
+		 */
+		protected Property(String name, Class<?> type, Class<?> genericType, String readMethodName, String writeMethodName) {
+			this.name = name;
+			this.type = type;
+			this.genericType = genericType;
+			this.readMethodName = readMethodName;
+			this.writeMethodName = writeMethodName;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public Class<?> getType() {
+			return type;
+		}
+
+		public Class<?> getGenericType() {
+			return genericType;
+		}
+
+		public String getReadMethodName() {
+			return readMethodName;
+		}
+
+		public String getWriteMethodName() {
+			return writeMethodName;
+		}
+
+		public boolean isWritable() {
+			return writeMethodName != null;
+		}
+
+		@Override
+		public void accept(Object obj, Object value) {
+			throw new UnsupportedOperationException("Property " + name + " is read only");
+		}
+	}
+}
@@ -5,15 +5,15 @@
 
 package org.jomni;
 
-import java.beans.BeanInfo;
-import java.beans.Introspector;
-import java.beans.PropertyDescriptor;
-import java.lang.reflect.Method;
-import java.lang.reflect.ParameterizedType;
-import java.lang.reflect.Type;
-import java.lang.reflect.TypeVariable;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Parameter;
 import java.util.*;
-import java.util.stream.Stream;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.jomni.util.ShapeMap;
 
 import static java.lang.String.format;
 
@@ -22,66 +22,122 @@ import static java.lang.String.format;
  */
 public class ClassInfo {
 
-	private static Set<String> excludePropNames = new HashSet<>(Arrays.asList(new String[] {"class"}));
 	private final Class objectClass;
 
-	Map<String, PropInfo> propInfoByPropName = new HashMap<>();
+	// the properties, sorted by name (the PropInfo index is its position in this order)
+	Map<String, PropInfo> propInfoByPropName = new LinkedHashMap<>();
+
+	// the no-arg constructor instantiator (null if none)
+	private final Supplier<Object> instantiator;
+
+	// the creator constructor (see JomniCreator), with its property names and parameter types (null if none)
+	private final Function<Object[], Object> creator;
+	private final String[] creatorPropNames;
+	private final Class[] creatorParamTypes;
+
+	// the shared ShapeMap.Shape of the property names (lazily created, see getMapShape)
+	private volatile ShapeMap.Shape mapShape;
 
 	public ClassInfo(Class objectClass) {
+		this(objectClass, null, false);
+	}
+
+	/**
+	 * @param accessor the compiled ClassAccessor of this class (null to introspect the class)
+	 * @param fieldAccess true to access the properties by their fields (see JomniBuilder.setFieldAccess), when no
+	 *                    accessor
+	 */
+	ClassInfo(Class objectClass, ClassAccessor accessor, boolean fieldAccess) {
 		this.objectClass = objectClass;
-		try{
-			BeanInfo bi = Introspector.getBeanInfo(objectClass);
-			PropertyDescriptor[] propertyDescriptors = bi.getPropertyDescriptors();
-
-			for (PropertyDescriptor pd : propertyDescriptors){
-				Method readMethod = pd.getReadMethod();
-				if (readMethod != null && !excludePropNames.contains(pd.getName())){
-					// get name and type.
-					String propName = pd.getName();
-					Class propType = pd.getPropertyType();
-
-					// get the readMethod eventual genericType
-					Class propGenericType = null;
-					Type returnType = readMethod.getGenericReturnType();
-					if(returnType instanceof ParameterizedType){
-						ParameterizedType type = (ParameterizedType) returnType;
-						Type[] typeArguments = type.getActualTypeArguments();
-						// TODO: should probably get the first only
-						for(Type typeArgument : typeArguments) {
-							if (typeArgument instanceof Class){
-								propGenericType = (Class) typeArgument;
-							}else if (typeArgument instanceof TypeVariable){
-								// Not sure we can do something for now, but perhaps we can check the generic name with the
-								// owner class.
-							}
-						}
+		if (accessor != null) {
+			initProperties(accessor);
+		} else {
+			initProperties(fieldAccess);
+		}
+		int index = 0;
+		for (PropInfo propInfo : propInfoByPropName.values()) {
+			propInfo.index = index++;
+		}
+
+		// determine how to instantiate the objects
+		Constructor noArgConstructor = null;
+		Constructor creatorConstructor = null;
+		String[] creatorNames = null;
+		if (isInstantiable(objectClass)) {
+			for (Constructor constructor : objectClass.getDeclaredConstructors()) {
+				if (constructor.getParameterCount() == 0) {
+					noArgConstructor = constructor;
+				}
+				JomniCreator jomniCreator = (JomniCreator) constructor.getAnnotation(JomniCreator.class);
+				if (jomniCreator != null) {
+					creatorConstructor = constructor;
+					creatorNames = (jomniCreator.value().length > 0) ? jomniCreator.value() : parameterNames(constructor);
+					if (creatorNames == null || creatorNames.length != constructor.getParameterCount()) {
+						throw new RuntimeException(format("JomniCreator constructor of %s must give its property names (or the class must be compiled with -parameters)", objectClass.getName()));
 					}
+				}
+			}
+			// if no no-arg constructor, try the public constructor with most parameters, all matching properties.
+			if (creatorConstructor == null && noArgConstructor == null) {
+				for (Constructor constructor : objectClass.getConstructors()) {
+					String[] names = parameterNames(constructor);
+					if (names != null && propInfoByPropName.keySet().containsAll(Arrays.asList(names))
+							&& (creatorConstructor == null || names.length > creatorNames.length)) {
+						creatorConstructor = constructor;
+						creatorNames = names;
+					}
+				}
+			}
+		}
+		// Note: the generated accessors only instantiate with a public no-arg constructor
+		if (noArgConstructor != null && accessor != null && Modifier.isPublic(noArgConstructor.getModifiers())) {
+			instantiator = accessor::newInstance;
+		} else {
+			instantiator = (noArgConstructor != null) ? Accessors.instantiator(noArgConstructor) : null;
+		}
+		creator = (creatorConstructor != null) ? Accessors.creator(creatorConstructor) : null;
+		creatorPropNames = creatorNames;
+		creatorParamTypes = (creatorConstructor != null) ? creatorConstructor.getParameterTypes() : null;
+	}
 
+	/**
+	 * Take the properties from the compiled ClassAccessor (no scan, and no property reflection).
+	 */
+	private void initProperties(ClassAccessor accessor) {
+		ClassAccessor.Property[] properties = accessor.getProperties();
+		Arrays.sort(properties, (a, b) -> a.getName().compareTo(b.getName()));
+		for (ClassAccessor.Property property : properties) {
+			propInfoByPropName.put(property.getName(), new PropInfo(property, objectClass));
+		}
+	}
 
+	/**
+	 * Scan the properties (see PropertyScanner).
+	 */
+	private void initProperties(boolean fieldAccess) {
+		PropertyScanner scanner = new PropertyScanner(objectClass);
+		for (PropInfo propInfo : (fieldAccess) ? scanner.scanFields() : scanner.scan()) {
+			propInfoByPropName.put(propInfo.getName(), propInfo);
+		}
+	}
 
-					// get the writeMethod
-					Method writeMethod = pd.getWriteMethod();
-					// if the writeMethod is null, probably because it is a chainable one
-					if (writeMethod == null){
-						String readMethodName = readMethod.getName();
-						// TODO: will need to support the "is..." readerMethod as well.
-						if (readMethodName.startsWith("get")){
-							String writeMethodName = "set" + readMethodName.substring(3);
-							try{
-								writeMethod = objectClass.getMethod(writeMethodName,propType);
-							}catch (NoSuchMethodException nsme){
-								// fine, no setter for this one.
-							}
-						}
-					}
+	private static boolean isInstantiable(Class cls) {
+		return !cls.isInterface() && !cls.isPrimitive() && !cls.isArray() && !cls.isEnum() && !Modifier.isAbstract(cls.getModifiers());
+	}
 
-					PropInfo propInfo = new PropInfo(propName, propType, propGenericType, writeMethod, readMethod);
-					propInfoByPropName.put(propName,propInfo);
-				}
+	/**
+	 * @return the parameter names of this constructor if compiled with "-parameters", null otherwise.
+	 */
+	private static String[] parameterNames(Constructor constructor) {
+		Parameter[] parameters = constructor.getParameters();
+		String[] names = new String[parameters.length];
+		for (int i = 0; i < parameters.length; i++) {
+			if (!parameters[i].isNamePresent()) {
+				return null;
 			}
-		}catch(Exception e) {
-			throw new RuntimeException(e);
+			names[i] = parameters[i].getName();
 		}
+		return names;
 	}
 
 	/**
@@ -91,18 +147,60 @@ public class ClassInfo {
 		return objectClass;
 	}
 
+	// --------- Instantiation --------- //
+	/**
+	 * @return a new instance from the no-arg constructor.
+	 * @throws MapperException CANNOT_INSTANTIATE if the class does not have a no-arg constructor.
+	 */
+	public Object newInstance() {
+		if (instantiator == null) {
+			throw MapperException.cannotInstantiate(objectClass);
+		}
+		return instantiator.get();
+	}
+
+	/**
+	 * @return true if the objects of this class get created with a creator constructor (see JomniCreator).
+	 */
+	public boolean hasCreator() {
+		return creator != null;
+	}
+
+	/**
+	 * @return the property names matching the creator constructor parameters (null if no creator).
+	 */
+	public String[] getCreatorPropNames() {
+		return creatorPropNames;
+	}
+
+	Class[] getCreatorParamTypes() {
+		return creatorParamTypes;
+	}
+
+	/**
+	 * Create a new instance with the creator constructor.
+	 * @param args the constructor arguments, in order of getCreatorPropNames (types must match)
+	 */
+	public Object create(Object[] args) {
+		if (creator == null) {
+			throw MapperException.cannotInstantiate(objectClass);
+		}
+		return creator.apply(args);
+	}
+	// --------- /Instantiation --------- //
+
 	public Object getValue(Object obj,String propName) {
 		Object val = null;
 		PropInfo propInfo = propInfoByPropName.get(propName);
 		if (propInfo != null){
-			Method readMethod = propInfo.getReadMethod();
-			if (readMethod == null){
+			Function<Object, Object> reader = propInfo.getReader();
+			if (reader == null){
 				throw new RuntimeException(format("propName %s does not not have readMethod",propName));
 			}
 			try {
-				val = readMethod.invoke(obj);
+				val = reader.apply(obj);
 			} catch (Throwable e) {
-				throw new RuntimeException(format("Error while calling read method %s for property %s on object %s", readMethod.getName(), propName, obj) + "\n" + e,e);
+				throw new RuntimeException(format("Error while reading property %s on object %s", propName, obj) + "\n" + e,e);
 			}
 		}
 		return val;
@@ -116,34 +214,27 @@ public class ClassInfo {
 	 * @return
 	 */
 	public boolean setValue(Object obj, String propName, Object value){
-		boolean done = false;
 		PropInfo propInfo = propInfoByPropName.get(propName);
-		Method writeMethod = (propInfo != null)?propInfo.getWriteMethod():null;
-		if (writeMethod != null){
+		BiConsumer<Object, Object> writer = (propInfo != null)?propInfo.getWriter():null;
+		if (writer != null){
 			try {
-				if (value == null){
-					writeMethod.invoke(obj,new Object[]{ null });
-					done = true;
-				}else{
-					// if value is null, it means the transformer fail to convert it.
-					// TODO: perhaps to use strict transformer.
-					if (value != null){
-						writeMethod.invoke(obj,value);
-						done = true;
-					}
-				}
+				writer.accept(obj, value);
 			} catch (Throwable e) {
 				throw new RuntimeException(e);
 			}
-
+			return true;
 		}
-		return done;
+		return false;
 	}
 
 	public Set<String> getPropertyNames(){
 		return propInfoByPropName.keySet();
 	}
 
+	public Collection<PropInfo> getPropInfos(){
+		return propInfoByPropName.values();
+	}
+
 	public PropInfo getPropInfo(String name) {
 		return propInfoByPropName.get(name);
 	}
@@ -152,5 +243,19 @@ public class ClassInfo {
 		return propInfoByPropName.containsKey(name);
 	}
 
+	/**
+	 * @return the ShapeMap.Shape of the property names (in getPropInfos order), shared by all the compact maps of
+	 * this class.
+	 */
+	ShapeMap.Shape getMapShape() {
+		ShapeMap.Shape shape = mapShape;
+		if (shape == null) {
+			// Note: benign race, the shapes are equivalent and immutable.
+			shape = new ShapeMap.Shape(propInfoByPropName.keySet().toArray(new String[propInfoByPropName.size()]));
+			mapShape = shape;
+		}
+		return shape;
+	}
+
 }
 
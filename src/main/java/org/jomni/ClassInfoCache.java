@@ -0,0 +1,163 @@
+/*
+ * Copyright: 2014 Jeremy Chone
+ * License: Apache V2 http://www.apache.org/licenses/LICENSE-2.0
+ */
+
+package org.jomni;
+
+import java.lang.ref.WeakReference;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * <p>The ClassInfo cache of a JomniMapper.</p>
+ *
+ * <ul>
+ *     <li>Entries are stored with a ClassValue, so the cache does not keep the classes (and their classloaders) alive.</li>
+ *     <li>Each ClassInfo is built exactly once (single-flight), even when many threads ask for it at the same time.</li>
+ *     <li>Optionally bounded (see JomniBuilder.setClassInfoCacheMaxSize), in which case the oldest entries are evicted
+ *     first (useful for runtime generated classes).</li>
+ *     <li>Keep hit/miss/build time statistics (see JomniMapper.getClassInfoCacheStats).</li>
+ * </ul>
+ */
+public class ClassInfoCache {
+
+	private final Function<Class, ClassInfo> builder;
+	private final int maxSize;
+
+	private final ClassValue<Entry> entries = new ClassValue<Entry>() {
+		@Override
+		protected Entry computeValue(Class<?> type) {
+			return new Entry();
+		}
+	};
+
+	// the built classes in build order (only when bounded)
+	private final Queue<WeakReference<Class>> buildOrder = new ConcurrentLinkedQueue<>();
+	private final AtomicInteger size = new AtomicInteger();
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+	private final LongAdder buildNanos = new LongAdder();
+
+	/**
+	 * @param builder the ClassInfo factory
+	 * @param maxSize the max number of entries, 0 for unbounded
+	 */
+	ClassInfoCache(Function<Class, ClassInfo> builder, int maxSize) {
+		this.builder = builder;
+		this.maxSize = maxSize;
+	}
+
+	ClassInfo get(Class cls) {
+		Entry entry = entries.get(cls);
+		ClassInfo classInfo = entry.classInfo;
+		if (classInfo != null) {
+			hits.increment();
+			return classInfo;
+		}
+		return entry.build(cls);
+	}
+
+	public Stats getStats() {
+		return new Stats(size.get(), hits.sum(), misses.sum(), evictions.sum(), buildNanos.sum());
+	}
+
+	private void onBuilt(Class cls) {
+		size.incrementAndGet();
+		if (maxSize > 0) {
+			buildOrder.add(new WeakReference<>(cls));
+			while (size.get() > maxSize) {
+				WeakReference<Class> ref = buildOrder.poll();
+				if (ref == null) {
+					break;
+				}
+				Class evictedClass = ref.get();
+				// if the class has been collected, its entry is gone already
+				if (evictedClass != null) {
+					entries.remove(evictedClass);
+					evictions.increment();
+				}
+				size.decrementAndGet();
+			}
+		}
+	}
+
+	private class Entry {
+		private volatile ClassInfo classInfo;
+
+		synchronized ClassInfo build(Class cls) {
+			ClassInfo ci = classInfo;
+			if (ci != null) {
+				hits.increment();
+				return ci;
+			}
+			misses.increment();
+			long start = System.nanoTime();
+			ci = builder.apply(cls);
+			buildNanos.add(System.nanoTime() - start);
+			classInfo = ci;
+			onBuilt(cls);
+			return ci;
+		}
+	}
+
+	/**
+	 * Immutable snapshot of the ClassInfoCache statistics.
+	 */
+	public static class Stats {
+		private final int size;
+		private final long hits;
+		private final long misses;
+		private final long evictions;
+		private final long buildNanos;
+
+		Stats(int size, long hits, long misses, long evictions, long buildNanos) {
+			this.size = size;
+			this.hits = hits;
+			this.misses = misses;
+			this.evictions = evictions;
+			this.buildNanos = buildNanos;
+		}
+
+		/**
+		 * @return the number of ClassInfo built and not evicted. Note that for an unbounded cache, this does not
+		 * account for the entries released with their classes.
+		 */
+		public int getSize() {
+			return size;
+		}
+
+		public long getHits() {
+			return hits;
+		}
+
+		/**
+		 * @return the number of misses, which is also the number of ClassInfo built.
+		 */
+		public long getMisses() {
+			return misses;
+		}
+
+		public long getEvictions() {
+			return evictions;
+		}
+
+		/**
+		 * @return the total time spent building the ClassInfo, in nanoseconds.
+		 */
+		public long getBuildNanos() {
+			return buildNanos;
+		}
+
+		@Override
+		public String toString() {
+			return new StringBuilder("[size=").append(size).append(" hits=").append(hits).append(" misses=").append(misses)
+					.append(" evictions=").append(evictions).append(" buildNanos=").append(buildNanos).append("]").toString();
+		}
+	}
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright: 2014 Jeremy Chone
+ * License: Apache V2 http://www.apache.org/licenses/LICENSE-2.0
+ */
+
+package org.jomni;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <p>Concurrent cache of values by source/target class pair, which does not keep the classes (and their classloaders)
+ * alive.</p>
+ *
+ * <p>Each entry is stored with a ClassValue on the class with the deepest classloader of the pair (e.g., on User for
+ * HashMap to User as well as for User to HashMap), and keyed there by the other class. The other class classloader is
+ * the same or an ancestor one, so it outlives the entry anyway. When the two classes have unrelated classloaders of the
+ * same depth, the entry is stored on the source class.</p>
+ */
+class ClassPairCache<V> {
+
+	// the classloader depth of each class (0 for the bootstrap classloader)
+	private static final ClassValue<Integer> loaderDepth = new ClassValue<Integer>() {
+		@Override
+		protected Integer computeValue(Class<?> type) {
+			int depth = 0;
+			for (ClassLoader loader = type.getClassLoader(); loader != null; loader = loader.getParent()) {
+				depth++;
+			}
+			return depth;
+		}
+	};
+
+	// the entries stored on the source class (by target class), and on the target class (by source class)
+	private final ClassValue<Map<Class, V>> bySource = newClassValue();
+	private final ClassValue<Map<Class, V>> byTarget = newClassValue();
+
+	/**
+	 * @return the value for this pair, or null if none
+	 */
+	V get(Class source, Class target) {
+		return (onTarget(source, target)) ? byTarget.get(target).get(source) : bySource.get(source).get(target);
+	}
+
+	/**
+	 * @return the value already cached for this pair if any, otherwise the value (which gets cached)
+	 */
+	V putIfAbsent(Class source, Class target, V value) {
+		V existing = (onTarget(source, target)) ? byTarget.get(target).putIfAbsent(source, value)
+				: bySource.get(source).putIfAbsent(target, value);
+		return (existing != null) ? existing : value;
+	}
+
+	private static boolean onTarget(Class source, Class target) {
+		return source != target && loaderDepth.get(target) > loaderDepth.get(source);
+	}
+
+	private static <V> ClassValue<Map<Class, V>> newClassValue() {
+		return new ClassValue<Map<Class, V>>() {
+			@Override
+			protected Map<Class, V> computeValue(Class<?> type) {
+				return new ConcurrentHashMap<>();
+			}
+		};
+	}
+}
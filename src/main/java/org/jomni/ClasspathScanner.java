@@ -0,0 +1,86 @@
+/*
+ * Copyright: 2014 Jeremy Chone
+ * License: Apache V2 http://www.apache.org/licenses/LICENSE-2.0
+ */
+
+package org.jomni;
+
+import java.io.IOException;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+
+/**
+ * <p>Minimal classpath scanner listing the class names of a package and its sub packages (from directories and jar
+ * files). Used by the JomniMapper prewarm.</p>
+ */
+class ClasspathScanner {
+
+	/**
+	 * @return the sorted class names of this package and its sub packages (the anonymous classes, package-info and
+	 * module-info excluded)
+	 */
+	static List<String> classNames(String packageName, ClassLoader classLoader) throws IOException {
+		String path = packageName.replace('.', '/');
+		Set<String> classNames = new TreeSet<>();
+		Enumeration<URL> urls = classLoader.getResources(path);
+		while (urls.hasMoreElements()) {
+			URL url = urls.nextElement();
+			if ("file".equals(url.getProtocol())) {
+				addDirectoryClassNames(url, packageName, classNames);
+			} else if ("jar".equals(url.getProtocol())) {
+				addJarClassNames(url, path, classNames);
+			}
+		}
+		return new ArrayList<>(classNames);
+	}
+
+	private static void addDirectoryClassNames(URL url, String packageName, Set<String> classNames) throws IOException {
+		Path dir;
+		try {
+			dir = Paths.get(url.toURI());
+		} catch (URISyntaxException e) {
+			throw new IOException("Invalid classpath directory " + url, e);
+		}
+		try (Stream<Path> files = Files.walk(dir)) {
+			files.forEach(file -> {
+				String relative = dir.relativize(file).toString().replace(file.getFileSystem().getSeparator(), "/");
+				addClassName(packageName.replace('.', '/') + "/" + relative, classNames);
+			});
+		}
+	}
+
+	private static void addJarClassNames(URL url, String path, Set<String> classNames) throws IOException {
+		JarURLConnection connection = (JarURLConnection) url.openConnection();
+		connection.setUseCaches(false);
+		try (JarFile jar = connection.getJarFile()) {
+			Enumeration<JarEntry> entries = jar.entries();
+			while (entries.hasMoreElements()) {
+				String name = entries.nextElement().getName();
+				if (name.startsWith(path + "/")) {
+					addClassName(name, classNames);
+				}
+			}
+		}
+	}
+
+	private static void addClassName(String resourceName, Set<String> classNames) {
+		if (!resourceName.endsWith(".class") || resourceName.endsWith("package-info.class") || resourceName.endsWith("module-info.class")) {
+			return;
+		}
+		String className = resourceName.substring(0, resourceName.length() - 6).replace('/', '.');
+		// skip the anonymous classes (e.g., Foo$1)
+		int dollarIdx = className.lastIndexOf('$');
+		if (dollarIdx >= 0 && dollarIdx + 1 < className.length() && Character.isDigit(className.charAt(dollarIdx + 1))) {
+			return;
+		}
+		classNames.add(className);
+	}
+}
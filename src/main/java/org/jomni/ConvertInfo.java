@@ -0,0 +1,47 @@
+/*
+ * Copyright: 2014 Jeremy Chone
+ * License: Apache V2 http://www.apache.org/licenses/LICENSE-2.0
+ */
+
+package org.jomni;
+
+/**
+ * <p>The resolved conversion decision for a source class / target class pair (see JomniMapper.getConvertInfo).</p>
+ *
+ * <p>Computed once per pair and cached, so that a steady state JomniMapper.as does not allocate anything but the
+ * result.</p>
+ */
+final class ConvertInfo {
+
+	final Class sourceClass;
+
+	final JomniMapper.ConvertType convertType;
+
+	// the converter for the converter ConvertType (null otherwise)
+	final TypeConverter typeConverter;
+
+	// the class to instantiate for the complex ConvertType (e.g., HashMap for the Map interface)
+	final Class targetClass;
+
+	// the source/target pair metrics when the metrics are enabled (set before the ConvertInfo is cached, null otherwise)
+	JomniMetrics.PairMetrics metrics;
+
+	// lazily set for the complex ConvertType (benign race, the plan is cached by the mapper anyway)
+	private MappingPlan mappingPlan;
+
+	ConvertInfo(Class sourceClass, JomniMapper.ConvertType convertType, TypeConverter typeConverter, Class targetClass) {
+		this.sourceClass = sourceClass;
+		this.convertType = convertType;
+		this.typeConverter = typeConverter;
+		this.targetClass = targetClass;
+	}
+
+	MappingPlan getMappingPlan(JomniMapper mapper) {
+		MappingPlan plan = mappingPlan;
+		if (plan == null) {
+			plan = mapper.getMappingPlan(sourceClass, targetClass);
+			mappingPlan = plan;
+		}
+		return plan;
+	}
+}
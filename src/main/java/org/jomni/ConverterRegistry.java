@@ -10,9 +10,7 @@ import org.jomni.util.Pair;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.util.Date;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.*;
 
 import static org.jomni.util.Pair.newPair;
 
@@ -22,20 +20,34 @@ import static org.jomni.util.Pair.newPair;
  */
 public class ConverterRegistry {
 
+	// marker for the "no converter" resolution result (ConcurrentHashMap does not take null values)
+	private static final TypeConverter<?, ?> NO_CONVERTER = (instance) -> null;
+
 	private final Map<Pair<Class<?>, Class<?>>, TypeConverter<?, ?>> registry;
 
+	// same converters as the registry, indexed by source class and then target class (for the hierarchy walk)
+	private final Map<Class<?>, Map<Class<?>, TypeConverter<?, ?>>> convertersBySource;
+
+	// resolved converters by source/target class pair (NO_CONVERTER when none)
+	private volatile ClassPairCache<TypeConverter<?, ?>> resolvedCache = new ClassPairCache<>();
+
 	// build a default Transformer
 	ConverterRegistry() {
 		registry = new HashMap<>();
+		convertersBySource = new HashMap<>();
 	}
 
 
 
-	void init() {
+	/**
+	 * @param checked if true, the Number to number type converters throw an ArithmeticException when the value does
+	 *                not fit (see NumberConverters)
+	 */
+	void init(boolean checked) {
 		addTypeConverter(String.class, Long.class, Long::valueOf);
-		addTypeConverter(String.class, Long.TYPE, Long::valueOf);
+		addTypeConverter(String.class, Long.TYPE, (ToLongConverter<String>) Long::parseLong);
 		addTypeConverter(String.class, Integer.class, Integer::valueOf);
-		addTypeConverter(String.class, Integer.TYPE, Integer::valueOf);
+		addTypeConverter(String.class, Integer.TYPE, (ToIntConverter<String>) Integer::parseInt);
 		addTypeConverter(String.class, Byte.class, Byte::valueOf);
 		addTypeConverter(String.class, Byte.TYPE, Byte::valueOf);
 		addTypeConverter(String.class, Short.class, Short::valueOf);
@@ -45,29 +57,27 @@ public class ConverterRegistry {
 		addTypeConverter(String.class, Float.class, Float::valueOf);
 		addTypeConverter(String.class, Float.TYPE, Float::valueOf);
 		addTypeConverter(String.class, Double.class, Double::valueOf);
-		addTypeConverter(String.class, Double.TYPE, Double::valueOf);
+		addTypeConverter(String.class, Double.TYPE, (ToDoubleConverter<String>) Double::parseDouble);
 		addTypeConverter(String.class, Character.class, (instance) -> (instance != null) ? instance.charAt(0) : (char) (byte) 0);
 		addTypeConverter(String.class, Character.TYPE, (instance) -> (instance != null) ? instance.charAt(0) : (char) (byte) 0);
-		addTypeConverter(String.class, Double.TYPE, Double::valueOf);
 		addTypeConverter(String.class, BigDecimal.class, BigDecimal::new);
-		addTypeConverter(Number.class, Long.class, (instance) -> ExtraConverters.toNumber(instance, Long.class));
-		addTypeConverter(Number.class, Long.TYPE, (instance) -> ExtraConverters.toNumber(instance, Long.class));
-		addTypeConverter(Number.class, Integer.class, (instance) -> ExtraConverters.toNumber(instance, Integer.class));
-		addTypeConverter(Number.class, Integer.TYPE, (instance) -> ExtraConverters.toNumber(instance, Integer.class));
-		addTypeConverter(Number.class, Byte.class, (instance) -> ExtraConverters.toNumber(instance, Byte.class));
-		addTypeConverter(Number.class, Byte.TYPE, (instance) -> ExtraConverters.toNumber(instance, Byte.class));
-		addTypeConverter(Number.class, Short.class, (instance) -> ExtraConverters.toNumber(instance, Short.class));
-		addTypeConverter(Number.class, Short.TYPE, (instance) -> ExtraConverters.toNumber(instance, Short.class));
+		addTypeConverter(Number.class, Long.class, (instance) -> NumberConverters.toLong(instance, checked));
+		addTypeConverter(Number.class, Long.TYPE, (ToLongConverter<Number>) (instance) -> NumberConverters.toLong(instance, checked));
+		addTypeConverter(Number.class, Integer.class, (instance) -> NumberConverters.toInt(instance, checked));
+		addTypeConverter(Number.class, Integer.TYPE, (ToIntConverter<Number>) (instance) -> NumberConverters.toInt(instance, checked));
+		addTypeConverter(Number.class, Byte.class, (instance) -> NumberConverters.toByte(instance, checked));
+		addTypeConverter(Number.class, Byte.TYPE, (instance) -> NumberConverters.toByte(instance, checked));
+		addTypeConverter(Number.class, Short.class, (instance) -> NumberConverters.toShort(instance, checked));
+		addTypeConverter(Number.class, Short.TYPE, (instance) -> NumberConverters.toShort(instance, checked));
 		addTypeConverter(Number.class, Boolean.class, ExtraConverters::toBoolean);
 		addTypeConverter(Number.class, Boolean.TYPE, ExtraConverters::toBoolean);
-		addTypeConverter(Number.class, Float.class, (instance) -> ExtraConverters.toNumber(instance, Float.class));
-		addTypeConverter(Number.class, Float.TYPE, (instance) -> ExtraConverters.toNumber(instance, Float.class));
-		addTypeConverter(Number.class, Double.class, (instance) -> ExtraConverters.toNumber(instance, Double.class));
-		addTypeConverter(Number.class, Double.TYPE, (instance) -> ExtraConverters.toNumber(instance, Double.class));
-		addTypeConverter(Number.class, BigDecimal.class, ExtraConverters::toBigDecimal);
+		addTypeConverter(Number.class, Float.class, (instance) -> NumberConverters.toFloat(instance, checked));
+		addTypeConverter(Number.class, Float.TYPE, (instance) -> NumberConverters.toFloat(instance, checked));
+		addTypeConverter(Number.class, Double.class, (instance) -> NumberConverters.toDouble(instance, checked));
+		addTypeConverter(Number.class, Double.TYPE, (ToDoubleConverter<Number>) (instance) -> NumberConverters.toDouble(instance, checked));
+		addTypeConverter(Number.class, BigDecimal.class, NumberConverters::toBigDecimal);
 		addTypeConverter(Object.class, String.class, Object::toString);
 		addTypeConverter(Character.class, Boolean.class, ExtraConverters::toBoolean);
-		addTypeConverter(Number.class, Boolean.TYPE, ExtraConverters::toBoolean);
 		addTypeConverter(LocalDateTime.class, LocalDate.class, (LocalDateTime instance) -> instance.toLocalDate());
 		addTypeConverter(LocalDate.class, LocalDateTime.class, (LocalDate instance) -> instance.atStartOfDay());
 		addTypeConverter(LocalDateTime.class, Date.class, ExtraConverters::localDateTimeToDate);
@@ -77,76 +87,141 @@ public class ConverterRegistry {
 		addTypeConverter(String.class, LocalDate.class,ExtraConverters::stringToLocalDate);
 		addTypeConverter(LocalDate.class, String.class,ExtraConverters::localDateToString);
 
+		// primitive arrays (see ArrayConverters)
+		addTypeConverter(Collection.class, long[].class, (instance) -> ArrayConverters.toLongArray(instance, checked));
+		addTypeConverter(Collection.class, int[].class, (instance) -> ArrayConverters.toIntArray(instance, checked));
+		addTypeConverter(Collection.class, double[].class, (instance) -> ArrayConverters.toDoubleArray(instance, checked));
+		addTypeConverter(Collection.class, byte[].class, (instance) -> ArrayConverters.toByteArray(instance, checked));
+		addTypeConverter(Object[].class, long[].class, (instance) -> ArrayConverters.toLongArray(instance, checked));
+		addTypeConverter(Object[].class, int[].class, (instance) -> ArrayConverters.toIntArray(instance, checked));
+		addTypeConverter(Object[].class, double[].class, (instance) -> ArrayConverters.toDoubleArray(instance, checked));
+		addTypeConverter(Object[].class, byte[].class, (instance) -> ArrayConverters.toByteArray(instance, checked));
+		// Note: the List interface target is resolved to ArrayList before the converter lookup (see JomniMapper)
+		addTypeConverter(long[].class, ArrayList.class, ArrayConverters::toList);
+		addTypeConverter(int[].class, ArrayList.class, ArrayConverters::toList);
+		addTypeConverter(double[].class, ArrayList.class, ArrayConverters::toList);
+		addTypeConverter(byte[].class, ArrayList.class, ArrayConverters::toList);
+		// the List targets get an ArrayList copy (see JomniMapper implByInterface)
+		addTypeConverter(Collection.class, ArrayList.class, (instance) -> new ArrayList<>(instance));
+		addTypeConverter(int[].class, long[].class, ArrayConverters::toLongArray);
+		addTypeConverter(byte[].class, long[].class, ArrayConverters::toLongArray);
+		addTypeConverter(byte[].class, int[].class, ArrayConverters::toIntArray);
+		addTypeConverter(long[].class, double[].class, ArrayConverters::toDoubleArray);
+		addTypeConverter(int[].class, double[].class, ArrayConverters::toDoubleArray);
+		addTypeConverter(byte[].class, double[].class, ArrayConverters::toDoubleArray);
 	}
 
 	<T, R> void addTypeConverter(Class<T> source, Class<R> target, TypeConverter<T, R> typeConverter) {
 		registry.put(newPair(source, target), typeConverter);
+		convertersBySource.computeIfAbsent(source, k -> new HashMap<>()).put(target, typeConverter);
+		// the resolved converters might not be valid anymore
+		resolvedCache = new ClassPairCache<>();
+	}
+
+	void addTypeConverters(ConverterRegistry other) {
+		for (Map.Entry<Pair<Class<?>, Class<?>>, TypeConverter<?, ?>> entry : other.registry.entrySet()) {
+			addTypeConverter((Class) entry.getKey().getA(), (Class) entry.getKey().getB(), (TypeConverter) entry.getValue());
+		}
 	}
 
 	Map<Pair<Class<?>, Class<?>>, TypeConverter<?, ?>> getRegistry() {
-		return registry;
+		return Collections.unmodifiableMap(registry);
 	}
 
 	// --------- /initialization --------- //
 
 	// --------- Converter Helpers --------- //
 
+	/**
+	 * <p>Return the TypeConverter for this source/target class pair (or null if none).</p>
+	 *
+	 * <p>The result (including the "none" result) is cached per source/target pair, so only the first call for a given
+	 * pair does the hierarchy walk.</p>
+	 */
 	TypeConverter resolveTypeConverter(Class<?> source, Class<?> target) {
+		ClassPairCache<TypeConverter<?, ?>> cache = resolvedCache;
+		TypeConverter<?, ?> typeConverter = cache.get(source, target);
+		if (typeConverter == null) {
+			typeConverter = computeTypeConverter(source, target);
+			if (typeConverter == null) {
+				typeConverter = NO_CONVERTER;
+			}
+			typeConverter = cache.putIfAbsent(source, target, typeConverter);
+		}
+		return (typeConverter != NO_CONVERTER) ? typeConverter : null;
+	}
+
+	private TypeConverter<?, ?> computeTypeConverter(Class<?> source, Class<?> target) {
 
 		TypeConverter<?, ?> typeConverter = findWideningTypeConverter(source, target);
 
 		if (typeConverter == null && target.isEnum()){
 			// special converter for enum
-			if (target.isEnum()) {
-				return (value) -> {
-					Class enumTarget = (Class<Enum>) target;
-					try {
-						return Enum.valueOf(enumTarget, value.toString());
-					} catch (Throwable e) {
-						throw e;
-					}
-				};
-			}
-		}
-		if (typeConverter == null) {
-			// if is it is a primitive or value isNull, then, return a lamdda converter
-			if (target.isPrimitive()){ // || isNull){
-				return (instance) -> {
-					if (target.isPrimitive()) {
-						try {
-							return target.getField("TYPE").get(null);
-						} catch (Exception e) {
-							throw new RuntimeException(e);
-						}
-					} else {
-						return null;
-					}
-				};
-			}
-			// NOTE: if no primitive or isNull, then, here typeConverter will be null
+			return (value) -> {
+				Class enumTarget = (Class<Enum>) target;
+				return Enum.valueOf(enumTarget, value.toString());
+			};
 		}
+		// NOTE: if no converter, then, here typeConverter will be null
 		return typeConverter;
 	}
 
+	/**
+	 * Find the most specific registered converter by walking the source hierarchy (most specific first) and, for each
+	 * source type, the target hierarchy (most specific first).
+	 */
 	private TypeConverter<?, ?> findWideningTypeConverter(Class<?> source, Class<?> target) {
-
-		TypeConverter<?, ?> typeConverter = registry.get(newPair(source, target));
-		if (typeConverter != null) {
-			return typeConverter;
+		List<Class<?>> targetHierarchy = null;
+
+		for (Class<?> sourceType : typeHierarchy(source)) {
+			Map<Class<?>, TypeConverter<?, ?>> converterByTarget = convertersBySource.get(sourceType);
+			if (converterByTarget != null) {
+				TypeConverter<?, ?> typeConverter = converterByTarget.get(target);
+				if (typeConverter != null) {
+					return typeConverter;
+				}
+				// lazy, as most source types do not have any converter
+				if (targetHierarchy == null) {
+					targetHierarchy = typeHierarchy(target);
+				}
+				for (Class<?> targetType : targetHierarchy) {
+					typeConverter = converterByTarget.get(targetType);
+					if (typeConverter != null) {
+						return typeConverter;
+					}
+				}
+			}
 		}
+		return null;
+	}
 
-		//do a widening search
-		Pair<Class<?>, Class<?>> transformerKey = registry
-				.keySet()
-				.stream()
-				.filter(key -> {
-					boolean sourceAssignable = key.getA().isAssignableFrom(source);
-					boolean targetAssignable = key.getB().isAssignableFrom(target);
-					return sourceAssignable && targetAssignable;
-				})
-				.findFirst().orElse(null);
-		return registry.get(transformerKey);
+	/**
+	 * Return the class and its super types from the most specific to the least specific: the class, its super classes,
+	 * then the interfaces (breadth first), and Object last (Object is not added for primitive classes).
+	 */
+	static List<Class<?>> typeHierarchy(Class<?> cls) {
+		List<Class<?>> hierarchy = new ArrayList<>();
+		for (Class<?> c = cls; c != null && c != Object.class; c = c.getSuperclass()) {
+			hierarchy.add(c);
+		}
+		// interfaces, breadth first
+		for (int i = 0; i < hierarchy.size(); i++) {
+			for (Class<?> itf : hierarchy.get(i).getInterfaces()) {
+				if (!hierarchy.contains(itf)) {
+					hierarchy.add(itf);
+				}
+			}
+		}
+		// the object arrays (e.g., String[]) have Object as super class, but are Object[] as well
+		if (cls.isArray() && !cls.getComponentType().isPrimitive() && cls != Object[].class) {
+			hierarchy.add(Object[].class);
+		}
+		if (!cls.isPrimitive()) {
+			hierarchy.add(Object.class);
+		}
+		return hierarchy;
 	}
+
 	// --------- /Converter Helpers --------- //
 
 
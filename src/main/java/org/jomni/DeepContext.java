@@ -0,0 +1,54 @@
+/*
+ * Copyright: 2014 Jeremy Chone
+ * License: Apache V2 http://www.apache.org/licenses/LICENSE-2.0
+ */
+
+package org.jomni;
+
+import java.util.IdentityHashMap;
+
+/**
+ * <p>The source to target identity map of a deep mapping call (see JomniBuilder.setDeepMapping), so that a shared
+ * source object is mapped once, and cycles terminate.</p>
+ *
+ * <p>The context is bound to the thread for the duration of the outermost mapping call (enter/exit are nested).</p>
+ */
+final class DeepContext {
+
+	// marker of a source being created with a creator constructor (its target cannot be referenced yet)
+	static final Object CREATING = new Object();
+
+	private static final ThreadLocal<DeepContext> current = new ThreadLocal<>();
+
+	private final IdentityHashMap<Object, Object> targetBySource = new IdentityHashMap<>();
+	private int depth;
+
+	static DeepContext enter() {
+		DeepContext ctx = current.get();
+		if (ctx == null) {
+			ctx = new DeepContext();
+			current.set(ctx);
+		}
+		ctx.depth++;
+		return ctx;
+	}
+
+	void exit() {
+		if (--depth == 0) {
+			current.remove();
+		}
+	}
+
+	/**
+	 * @return the target already mapped from this source if it is an instance of targetClass (or CREATING), otherwise
+	 * null.
+	 */
+	Object get(Object source, Class targetClass) {
+		Object target = targetBySource.get(source);
+		return (target == CREATING || targetClass.isInstance(target)) ? target : null;
+	}
+
+	void put(Object source, Object target) {
+		targetBySource.put(source, target);
+	}
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright: 2014 Jeremy Chone
+ * License: Apache V2 http://www.apache.org/licenses/LICENSE-2.0
+ */
+
+package org.jomni;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Modifier;
+import java.util.*;
+
+/**
+ * <p>Element-wise conversion of a Collection, Map (values), or Object array to a target container property with a
+ * known element type (e.g., List&lt;Role&gt; from PropInfo.getGenericType). Used by PropMapping in deep mapping mode
+ * (see JomniBuilder.setDeepMapping).</p>
+ *
+ * <p>Resolved once per property. Like PropMapping, the element ConvertInfo is bound to the last element class, so a
+ * homogeneous container is converted without any per element lookup.</p>
+ */
+final class ElementPlan {
+
+	// returned by convert when the value is not a matching container (then, the regular conversion applies)
+	static final Object NOT_HANDLED = new Object();
+
+	private enum Kind {
+		collection, map, array
+	}
+
+	private final JomniMapper mapper;
+	private final Kind kind;
+	private final Class containerType;
+	// the container class to instantiate (e.g., ArrayList for List)
+	private final Class implClass;
+	private final Class elementType;
+
+	// the ConvertInfo for the last element class (immutable, so it is safe to be replaced without synchronization)
+	private ConvertInfo convertInfo;
+
+	private ElementPlan(JomniMapper mapper, Kind kind, Class containerType, Class implClass, Class elementType) {
+		this.mapper = mapper;
+		this.kind = kind;
+		this.containerType = containerType;
+		this.implClass = implClass;
+		this.elementType = elementType;
+	}
+
+	/**
+	 * @return the ElementPlan for this container type, or null if not a container or if the element type is unknown
+	 * (or a primitive).
+	 */
+	static ElementPlan of(JomniMapper mapper, Class containerType, Class genericType) {
+		if (containerType.isArray()) {
+			Class componentType = containerType.getComponentType();
+			return (componentType.isPrimitive()) ? null : new ElementPlan(mapper, Kind.array, containerType, containerType, componentType);
+		}
+		if (genericType == null || genericType == Object.class) {
+			return null;
+		}
+		Kind kind = (Collection.class.isAssignableFrom(containerType)) ? Kind.collection
+				: (Map.class.isAssignableFrom(containerType)) ? Kind.map : null;
+		Class implClass = (kind != null) ? implClass(containerType) : null;
+		return (implClass != null) ? new ElementPlan(mapper, kind, containerType, implClass, genericType) : null;
+	}
+
+	private static Class implClass(Class containerType) {
+		if (!containerType.isInterface() && !Modifier.isAbstract(containerType.getModifiers())) {
+			return containerType;
+		}
+		for (Class cls : new Class[]{ArrayList.class, LinkedHashSet.class, TreeSet.class, LinkedHashMap.class, TreeMap.class}) {
+			if (containerType.isAssignableFrom(cls)) {
+				return cls;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @return the new container with the converted elements, or NOT_HANDLED if the value is not a container matching
+	 * this plan.
+	 */
+	Object convert(Object value) {
+		boolean valueIsMap = value instanceof Map;
+		boolean valueIsSeq = value instanceof Collection || value instanceof Object[];
+		if ((kind == Kind.map) ? !valueIsMap : !valueIsSeq) {
+			return NOT_HANDLED;
+		}
+
+		DeepContext ctx = DeepContext.enter();
+		try {
+			Object existing = ctx.get(value, containerType);
+			if (existing != null && existing != DeepContext.CREATING) {
+				return existing;
+			}
+			switch (kind) {
+				case map:
+					return convertMap((Map<?, ?>) value, ctx);
+				case array:
+					return convertArray(value);
+				default:
+					return convertCollection(value, ctx);
+			}
+		} finally {
+			ctx.exit();
+		}
+	}
+
+	private Object convertCollection(Object value, DeepContext ctx) {
+		Collection<?> source = (value instanceof Collection) ? (Collection<?>) value : Arrays.asList((Object[]) value);
+		Collection<Object> target = newCollection(source.size());
+		ctx.put(value, target);
+		for (Object element : source) {
+			target.add(convertElement(element));
+		}
+		return target;
+	}
+
+	private Object convertArray(Object value) {
+		Object[] source = (value instanceof Collection) ? ((Collection<?>) value).toArray() : (Object[]) value;
+		Object[] target = (Object[]) Array.newInstance(elementType, source.length);
+		for (int i = 0; i < source.length; i++) {
+			target[i] = convertElement(source[i]);
+		}
+		return target;
+	}
+
+	private Object convertMap(Map<?, ?> source, DeepContext ctx) {
+		Map<Object, Object> target = (implClass == LinkedHashMap.class)
+				? new LinkedHashMap<>((int) (source.size() / 0.75f) + 1) : (Map<Object, Object>) newInstance();
+		ctx.put(source, target);
+		for (Map.Entry<?, ?> entry : source.entrySet()) {
+			target.put(entry.getKey(), convertElement(entry.getValue()));
+		}
+		return target;
+	}
+
+	private Collection<Object> newCollection(int size) {
+		if (implClass == ArrayList.class) {
+			return new ArrayList<>(size);
+		}
+		if (implClass == LinkedHashSet.class) {
+			return new LinkedHashSet<>((int) (size / 0.75f) + 1);
+		}
+		return (Collection<Object>) newInstance();
+	}
+
+	private Object newInstance() {
+		return mapper.getClassInfo(implClass).newInstance();
+	}
+
+	private Object convertElement(Object element) {
+		if (element == null) {
+			return null;
+		}
+		ConvertInfo info = convertInfo;
+		if (info == null || info.sourceClass != element.getClass()) {
+			info = mapper.getConvertInfo(element.getClass(), elementType);
+			convertInfo = info;
+		}
+		return mapper.convert(info, element);
+	}
+}
@@ -73,19 +73,33 @@ public class ExtraConverters {
 		}).orElse(false);
 	}
 
+	/**
+	 * @throws ArithmeticException if the value does not fit the target type (see NumberConverters, checked)
+	 */
 	public static <T extends Number> T toNumber(Number number, Class<T> target) {
 		if (number == null) {
 			return null;
 		}
-		try {
-			return target.getConstructor(String.class).newInstance(number.toString());
-		} catch (Exception e) {
-			throw new RuntimeException(e);
+		Object val;
+		if (target == Long.class) val = NumberConverters.toLong(number, true);
+		else if (target == Integer.class) val = NumberConverters.toInt(number, true);
+		else if (target == Double.class) val = NumberConverters.toDouble(number, true);
+		else if (target == Float.class) val = NumberConverters.toFloat(number, true);
+		else if (target == Short.class) val = NumberConverters.toShort(number, true);
+		else if (target == Byte.class) val = NumberConverters.toByte(number, true);
+		else if (target == BigDecimal.class) val = NumberConverters.toBigDecimal(number);
+		else {
+			try {
+				val = target.getConstructor(String.class).newInstance(number.toString());
+			} catch (Exception e) {
+				throw new RuntimeException(e);
+			}
 		}
+		return (T) val;
 	}
 
 	public static BigDecimal toBigDecimal(Number number) {
-		return (number == null)? null: new BigDecimal(number.toString());
+		return (number == null)? null: NumberConverters.toBigDecimal(number);
 	}
 
 	public static Boolean toBoolean(String o) {
@@ -0,0 +1,28 @@
+/*
+ * Copyright: 2014 Jeremy Chone
+ * License: Apache V2 http://www.apache.org/licenses/LICENSE-2.0
+ */
+
+package org.jomni;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * <p>Mark a class for which the jomni-processor annotation processor generates a ClassAccessor at compile time
+ * (i.e., direct getter/setter calls, no property scan nor reflection at runtime).</p>
+ *
+ * <pre>
+ * &#64;JomniAccessor
+ * public class User {...}
+ * </pre>
+ *
+ * <p>The generated accessors are registered in META-INF/services/org.jomni.ClassAccessor, and used by the JomniMapper
+ * in place of the runtime introspection (see JomniBuilder.setServiceAccessors).</p>
+ */
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface JomniAccessor {
+}
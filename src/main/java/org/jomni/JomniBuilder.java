@@ -1,5 +1,11 @@
 package org.jomni;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.jomni.util.Pair;
 
 /**
  * JomniMapper builder.
@@ -10,8 +16,198 @@ public class JomniBuilder {
 
 	ConverterRegistry convertersOverride = new ConverterRegistry();
 
+	int classInfoCacheMaxSize = 0;
+
+	boolean numberOverflowCheck = true;
+
+	int parallelThreshold = 0;
+	ForkJoinPool forkJoinPool = null;
+
+	boolean compactMaps = false;
+
+	boolean deepMapping = false;
+
+	boolean metricsEnabled = false;
+	String metricsMBeanName = null;
+
+	boolean serviceAccessors = true;
+	List<ClassAccessor> classAccessors = new ArrayList<>();
+
+	boolean fieldAccess = false;
+	List<Class> fieldAccessClasses = new ArrayList<>();
+
+	List<Class> prewarmClasses = new ArrayList<>();
+	List<Pair<Class, Class>> prewarmPairs = new ArrayList<>();
+	List<String> prewarmPackages = new ArrayList<>();
+
+	MapperListener listener = null;
+	double listenerSampleRate = 1;
+
 	public JomniMapper build(){
-		return new JomniMapper(convertersOverride);
+		return new JomniMapper(this);
+	}
+
+	/**
+	 * Bound the number of ClassInfo kept by the mapper (oldest evicted first). Default is 0, for unbounded, which is
+	 * fine unless the mapper sees runtime generated classes.
+	 */
+	public JomniBuilder setClassInfoCacheMaxSize(int maxSize) {
+		classInfoCacheMaxSize = maxSize;
+		return this;
+	}
+
+	/**
+	 * If true, the Number to number type conversions (e.g., Long to Integer, Double to Long) throw an
+	 * ArithmeticException when the value does not fit the target type (as the String based conversions do). Set to
+	 * false for the unchecked fast path, following the Java narrowing rules (e.g., 3000000000L to int is -1294967296).
+	 * Default true.
+	 */
+	public JomniBuilder setNumberOverflowCheck(boolean numberOverflowCheck) {
+		this.numberOverflowCheck = numberOverflowCheck;
+		return this;
+	}
+
+	/**
+	 * The bulk APIs (JomniMapper.asList, asArray, mapAll) convert in parallel when the number of values is at or above
+	 * this threshold. Default 0, for always sequential.
+	 */
+	public JomniBuilder setParallelThreshold(int parallelThreshold) {
+		this.parallelThreshold = parallelThreshold;
+		return this;
+	}
+
+	/**
+	 * The ForkJoinPool used for the parallel bulk conversions. Default is ForkJoinPool.commonPool().
+	 */
+	public JomniBuilder setForkJoinPool(ForkJoinPool forkJoinPool) {
+		this.forkJoinPool = forkJoinPool;
+		return this;
+	}
+
+	/**
+	 * If true, the POJO to Map conversions with the Map interface as target (e.g., asMap, as(Map.class,pojo)) create
+	 * a compact ShapeMap, which shares the key set per POJO class, rather than a HashMap. Default false.
+	 */
+	public JomniBuilder setCompactMaps(boolean compactMaps) {
+		this.compactMaps = compactMaps;
+		return this;
+	}
+
+	/**
+	 * <p>If true, the complex conversions (POJO/Map to POJO) convert the Collection, Map (values), and Object array
+	 * properties element-wise to their generic element type (e.g., a List of Maps to a List&lt;User&gt;), rather than
+	 * setting them as is.</p>
+	 *
+	 * <p>Each call keeps a source to target identity map, so a shared source object is mapped once, and cycles
+	 * terminate (except through creator constructor arguments). Default false.</p>
+	 */
+	public JomniBuilder setDeepMapping(boolean deepMapping) {
+		this.deepMapping = deepMapping;
+		return this;
+	}
+
+	/**
+	 * If true, the mapper records conversion counts and latencies per source/target class pair, as well as the
+	 * resolution and cache statistics (see JomniMapper.getMetrics). Default false (no overhead).
+	 */
+	public JomniBuilder setMetricsEnabled(boolean metricsEnabled) {
+		this.metricsEnabled = metricsEnabled;
+		return this;
+	}
+
+	/**
+	 * Enable the metrics, and register them as a JMX MBean with this object name on build (e.g.,
+	 * "org.jomni:type=JomniMetrics,name=main").
+	 */
+	public JomniBuilder setMetricsMBeanName(String objectName) {
+		this.metricsEnabled = true;
+		this.metricsMBeanName = objectName;
+		return this;
+	}
+
+	/**
+	 * Set the MapperListener called for every JomniMapper.as, Omni.setAll, and property set (see MapperListener).
+	 */
+	public JomniBuilder setMapperListener(MapperListener listener) {
+		return setMapperListener(listener, 1);
+	}
+
+	/**
+	 * Set the MapperListener called for a sample of the calls.
+	 *
+	 * @param sampleRate the fraction of the calls to be passed to the listener, in (0, 1] (e.g., 0.01 for 1%)
+	 */
+	public JomniBuilder setMapperListener(MapperListener listener, double sampleRate) {
+		if (!(sampleRate > 0 && sampleRate <= 1)) {
+			throw new IllegalArgumentException("sampleRate must be in (0, 1], but was " + sampleRate);
+		}
+		this.listener = listener;
+		this.listenerSampleRate = sampleRate;
+		return this;
+	}
+
+	/**
+	 * If true, the ClassAccessors registered as services (META-INF/services/org.jomni.ClassAccessor, typically
+	 * generated by the jomni-processor for the JomniAccessor classes) are used in place of the introspection. Default
+	 * true.
+	 */
+	public JomniBuilder setServiceAccessors(boolean serviceAccessors) {
+		this.serviceAccessors = serviceAccessors;
+		return this;
+	}
+
+	/**
+	 * Add a ClassAccessor to be used in place of the introspection for its class (takes precedence over the service
+	 * ones).
+	 */
+	public JomniBuilder addClassAccessor(ClassAccessor accessor) {
+		classAccessors.add(accessor);
+		return this;
+	}
+
+	/**
+	 * <p>If true, the properties of all the classes are accessed by their fields (any visibility, final ones are read
+	 * only) through MethodHandle field getters/setters, rather than by their getters/setters. The getter properties
+	 * without a field are still accessed by their getter. Default false.</p>
+	 *
+	 * <p>Allows to map the field only classes (e.g., generated messages, internal structs). The ClassAccessors take
+	 * precedence over the field access.</p>
+	 */
+	public JomniBuilder setFieldAccess(boolean fieldAccess) {
+		this.fieldAccess = fieldAccess;
+		return this;
+	}
+
+	/**
+	 * Access the properties of these classes by their fields (see setFieldAccess).
+	 */
+	public JomniBuilder addFieldAccessClasses(Class... classes) {
+		fieldAccessClasses.addAll(Arrays.asList(classes));
+		return this;
+	}
+
+	/**
+	 * Prewarm these classes when the mapper is built (see JomniMapper.prewarm and JomniMapper.getPrewarmReport).
+	 */
+	public JomniBuilder addPrewarmClasses(Class... classes) {
+		prewarmClasses.addAll(Arrays.asList(classes));
+		return this;
+	}
+
+	/**
+	 * Prewarm this source/target class pair when the mapper is built.
+	 */
+	public JomniBuilder addPrewarmPair(Class sourceClass, Class targetClass) {
+		prewarmPairs.add(new Pair<>(sourceClass, targetClass));
+		return this;
+	}
+
+	/**
+	 * Prewarm the classes of this package (and its sub packages, scanned from the classpath) when the mapper is built.
+	 */
+	public JomniBuilder addPrewarmPackage(String packageName) {
+		prewarmPackages.add(packageName);
+		return this;
 	}
 
 	public <T, R> void addTypeConverter(Class<T> source, Class<R> target, TypeConverter<T, R> typeConverter) {
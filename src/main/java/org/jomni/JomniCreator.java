@@ -0,0 +1,34 @@
+/*
+ * Copyright: 2014 Jeremy Chone
+ * License: Apache V2 http://www.apache.org/licenses/LICENSE-2.0
+ */
+
+package org.jomni;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * <p>Mark the constructor to be used to create the objects of an immutable class (e.g., value objects without setters).
+ * The property values are matched by name to the constructor parameters.</p>
+ *
+ * <pre>
+ * &#64;JomniCreator({"currency","amount"})
+ * public Price(String currency, long amount){...}
+ * </pre>
+ *
+ * <p>The property names can be omitted when the class is compiled with "-parameters". Also, for a class without no-arg
+ * constructor, the public constructor with the most parameters, all matching a property name, is used when the
+ * parameter names are available.</p>
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.CONSTRUCTOR)
+public @interface JomniCreator {
+
+	/**
+	 * @return the property names of the constructor parameters, in order.
+	 */
+	String[] value() default {};
+}
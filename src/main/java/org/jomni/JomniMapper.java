@@ -5,13 +5,19 @@
 
 package org.jomni;
 
-import org.jomni.util.Pair;
-
+import java.lang.reflect.Array;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
+import org.jomni.util.Pair;
+import org.jomni.util.ShapeMap;
+
 import static org.jomni.util.Maps.mapOf;
 
 /**
@@ -20,21 +26,79 @@ import static org.jomni.util.Maps.mapOf;
 public class JomniMapper {
 	static private final Map<Class,Class> implByInterface = mapOf(Map.class,HashMap.class,List.class,ArrayList.class);
 
-	private enum ConvertType {
+	enum ConvertType {
 		identity, none, converter, complex;
 	}
 
-	private Map<Class, ClassInfo> classInfoByClass = new ConcurrentHashMap<>(16, 0.9f, 1);
+	private final ClassInfoCache classInfoCache;
+
+	// the bulk APIs convert in parallel on the forkJoinPool above this size (0 for never)
+	private final int parallelThreshold;
+	private final ForkJoinPool forkJoinPool;
+
+	// if true, the POJO to Map (interface) conversions create a compact ShapeMap rather than a HashMap
+	private final boolean compactMaps;
+
+	// if true, the complex conversions map the container properties element-wise, and the shared objects once
+	private final boolean deepMapping;
+
+	// null when the metrics are not enabled (see JomniBuilder.setMetricsEnabled)
+	private final JomniMetrics metrics;
+
+	// null when no listener (see JomniBuilder.setMapperListener), and the listener sample rate (1 for every call)
+	private final MapperListener listener;
+	private final double listenerSampleRate;
+
+	// the report of the build time prewarm (null if none, see JomniBuilder.addPrewarmClasses)
+	private final PrewarmReport prewarmReport;
 
 	private ConverterRegistry converterRegistry = new ConverterRegistry();
 
+	// ConvertInfo and MappingPlan by source/target class pair (not keeping the classes alive)
+	private final ClassPairCache<ConvertInfo> convertInfos = new ClassPairCache<>();
+	private final ClassPairCache<MappingPlan> mappingPlans = new ClassPairCache<>();
+
+	// PropertyPath by POJO root class and then by path (at most MAX_PATHS_PER_CLASS per root class)
+	private static final int MAX_PATHS_PER_CLASS = 256;
+	private final ClassValue<Map<String, PropertyPath>> propertyPaths = new ClassValue<Map<String, PropertyPath>>() {
+		@Override
+		protected Map<String, PropertyPath> computeValue(Class<?> type) {
+			return new ConcurrentHashMap<>();
+		}
+	};
 
 	/**
 	 * Packaged scoped constructor to force use of Builder.
 	 */
-	JomniMapper(ConverterRegistry override){
-		converterRegistry.init();
-		converterRegistry.getRegistry().putAll(override.getRegistry());
+	JomniMapper(JomniBuilder builder){
+		converterRegistry.init(builder.numberOverflowCheck);
+		converterRegistry.addTypeConverters(builder.convertersOverride);
+		// the compiled ClassAccessors (generated by jomni-processor) are used in place of the introspection
+		Map<Class, ClassAccessor> accessorByClass = new HashMap<>();
+		if (builder.serviceAccessors) {
+			for (ClassAccessor accessor : ServiceLoader.load(ClassAccessor.class)) {
+				accessorByClass.put(accessor.getObjectClass(), accessor);
+			}
+		}
+		for (ClassAccessor accessor : builder.classAccessors) {
+			accessorByClass.put(accessor.getObjectClass(), accessor);
+		}
+		// the field access classes (see JomniBuilder.setFieldAccess)
+		boolean fieldAccess = builder.fieldAccess;
+		Set<Class> fieldAccessClasses = new HashSet<>(builder.fieldAccessClasses);
+		classInfoCache = new ClassInfoCache((cls) -> new ClassInfo(cls, accessorByClass.get(cls), fieldAccess || fieldAccessClasses.contains(cls)), builder.classInfoCacheMaxSize);
+		parallelThreshold = builder.parallelThreshold;
+		forkJoinPool = (builder.forkJoinPool != null) ? builder.forkJoinPool : ForkJoinPool.commonPool();
+		compactMaps = builder.compactMaps;
+		deepMapping = builder.deepMapping;
+		listener = builder.listener;
+		listenerSampleRate = builder.listenerSampleRate;
+		metrics = (builder.metricsEnabled) ? new JomniMetrics(classInfoCache) : null;
+		if (metrics != null && builder.metricsMBeanName != null) {
+			metrics.registerMBean(builder.metricsMBeanName);
+		}
+		boolean hasPrewarm = !builder.prewarmClasses.isEmpty() || !builder.prewarmPairs.isEmpty() || !builder.prewarmPackages.isEmpty();
+		prewarmReport = (hasPrewarm) ? prewarm(builder.prewarmClasses, builder.prewarmPairs, builder.prewarmPackages) : null;
 	}
 
 	// --------- Public APIs --------- //
@@ -50,28 +114,12 @@ public class JomniMapper {
 		if (value == null){
 			return (R) null;
 		}
-
-		// if targetClass is an interface, try to find the implClass (if not, let it fail later)
-		if (targetClass.isInterface()) {
-			Class implClass = implByInterface.get(targetClass);
-			targetClass = (implClass != null)?implClass:null;
-		}
-
-		Pair<ConvertType, TypeConverter<T, R>> converterInfo = getConvertInfo(value, targetClass);
-		JomniMapper.ConvertType converterType = converterInfo.getA();
-		TypeConverter<T, R> typeConverter = converterInfo.getB();
-		try {
-			if (converterType == ConvertType.complex) {
-				R targetObject = targetClass.newInstance();
-				Omni jSource = omni(value);
-				Omni<R> jTarget = omni(targetObject);
-				return jTarget.setAll(jSource).get();
-			} else {
-				return convert(converterType, typeConverter, value, targetClass);
-			}
-		} catch (InstantiationException | IllegalAccessException e) {
-			throw new RuntimeException(e);
+		ConvertInfo info = getConvertInfo(value.getClass(), targetClass);
+		MapperListener sampledListener = sampledListener();
+		if (sampledListener != null) {
+			return convertListened(sampledListener, targetClass, info, value);
 		}
+		return (metrics == null) ? convert(info, value, null) : convertTimed(info, value, null);
 	}
 
 	/**
@@ -94,17 +142,238 @@ public class JomniMapper {
 	}
 
 	/**
-	 * Just a shorten for mapper.as(HashMap.class,obj)
+	 * Just a shorten for mapper.as(HashMap.class,obj) (or mapper.as(Map.class,obj) when the mapper is built with
+	 * compact maps, see JomniBuilder.setCompactMaps)
 	 * @param obj
 	 * @return
 	 */
 	public Map<String, Object> asMap(Object obj) {
-		return as(HashMap.class, obj);
+		return (compactMaps) ? as(Map.class, obj) : as(HashMap.class, obj);
+	}
+
+	/**
+	 * <p>Same as asMap, but always return a compact ShapeMap (the property names are shared by all the maps of the
+	 * same POJO class, and only the values are stored per map).</p>
+	 *
+	 * <p>Good fit for large number of maps kept in memory (e.g., result caches). Putting a new key upgrades the
+	 * map to a HashMap.</p>
+	 */
+	public Map<String, Object> asCompactMap(Object obj) {
+		return as(ShapeMap.class, obj);
+	}
+
+
+	/**
+	 * <p>Return a read-only Map view backed by the POJO (i.e., no copy). The keys are the POJO property names, and the
+	 * values are read from the POJO on get (so, the view reflects the POJO changes).</p>
+	 *
+	 * <p>Cheaper than asMap when the consumer reads only some of the properties (e.g., templating, logging). If obj is
+	 * already a Map, it is returned as an unmodifiable Map.</p>
+	 */
+	public Map<String, Object> mapView(Object obj) {
+		return mapView(obj, false);
+	}
+
+	/**
+	 * Same as mapView(obj), but if writable, the Map put writes through to the POJO (with the same coercion as
+	 * Omni.put). Putting a non writable property fails with an IllegalArgumentException.
+	 */
+	public Map<String, Object> mapView(Object obj, boolean writable) {
+		if (obj == null) {
+			return null;
+		}
+		if (obj instanceof Map) {
+			return (writable) ? (Map<String, Object>) obj : Collections.unmodifiableMap((Map<String, Object>) obj);
+		}
+		return new BeanMapView(this, obj, writable);
 	}
 
+	// --------- Prewarm --------- //
+	/**
+	 * Same as prewarm(classes, pairs, packageNames) with only classes.
+	 */
+	public PrewarmReport prewarm(Class... classes) {
+		return prewarm(Arrays.asList(classes), Collections.emptyList(), Collections.emptyList());
+	}
+
+	/**
+	 * <p>Build upfront, in parallel on the mapper ForkJoinPool, what the first conversions would otherwise build:</p>
+	 *
+	 * <ul>
+	 *     <li>for each class (and each class of the packages and their sub packages): its ClassInfo, and its Map to
+	 *     class and class to Map (asMap) conversion plans.</li>
+	 *     <li>for each source/target class pair: its conversion resolution and plan.</li>
+	 * </ul>
+	 *
+	 * <p>The failures (e.g., a class that cannot be loaded, or a package without classes) are reported, not thrown.</p>
+	 *
+	 * @param packageNames the packages to scan from the classpath (the concrete classes are prewarmed)
+	 */
+	public PrewarmReport prewarm(Collection<Class> classes, Collection<Pair<Class, Class>> pairs, Collection<String> packageNames) {
+		long start = System.nanoTime();
+		Map<String, String> errors = new ConcurrentHashMap<>();
+
+		Set<Class> allClasses = new LinkedHashSet<>(classes);
+		for (String packageName : packageNames) {
+			allClasses.addAll(scanClasses(packageName, errors));
+		}
+
+		List<ForkJoinTask<?>> tasks = new ArrayList<>(allClasses.size() + pairs.size());
+		for (Class cls : allClasses) {
+			tasks.add(ForkJoinTask.adapt(() -> prewarmClass(cls, errors)));
+		}
+		for (Pair<Class, Class> pair : pairs) {
+			tasks.add(ForkJoinTask.adapt(() -> prewarmPair(pair.getA(), pair.getB(), errors)));
+		}
+		forkJoinPool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+
+		return new PrewarmReport(allClasses.size(), pairs.size(), System.nanoTime() - start, Collections.unmodifiableMap(new TreeMap<>(errors)));
+	}
+
+	/**
+	 * @return the report of the prewarm done when the mapper was built, or null if none
+	 */
+	public PrewarmReport getPrewarmReport() {
+		return prewarmReport;
+	}
+
+	private void prewarmClass(Class cls, Map<String, String> errors) {
+		try {
+			getClassInfo(cls);
+			prewarmPlan(HashMap.class, cls);
+			prewarmPlan(cls, (compactMaps) ? Map.class : HashMap.class);
+		} catch (Throwable e) {
+			errors.put(cls.getName(), e.toString());
+		}
+	}
+
+	private void prewarmPair(Class sourceClass, Class targetClass, Map<String, String> errors) {
+		try {
+			prewarmPlan(sourceClass, targetClass);
+		} catch (Throwable e) {
+			errors.put(sourceClass.getName() + " -> " + targetClass.getName(), e.toString());
+		}
+	}
+
+	private void prewarmPlan(Class sourceClass, Class targetClass) {
+		ConvertInfo info = getConvertInfo(sourceClass, targetClass);
+		if (info.convertType == ConvertType.complex) {
+			info.getMappingPlan(this);
+		}
+	}
+
+	private List<Class> scanClasses(String packageName, Map<String, String> errors) {
+		ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+		classLoader = (classLoader != null) ? classLoader : JomniMapper.class.getClassLoader();
+		List<Class> classes = new ArrayList<>();
+		try {
+			List<String> classNames = ClasspathScanner.classNames(packageName, classLoader);
+			// e.g., a misspelled package
+			if (classNames.isEmpty()) {
+				errors.put(packageName, "No classes found in package " + packageName);
+			}
+			for (String className : classNames) {
+				try {
+					Class cls = Class.forName(className, false, classLoader);
+					if (!cls.isInterface() && !cls.isEnum() && !cls.isAnonymousClass() && !cls.isLocalClass() && !cls.isSynthetic()) {
+						classes.add(cls);
+					}
+				} catch (Throwable e) {
+					errors.put(className, e.toString());
+				}
+			}
+		} catch (Exception e) {
+			errors.put(packageName, e.toString());
+		}
+		return classes;
+	}
+	// --------- /Prewarm --------- //
+
+	/**
+	 * @return the metrics of this mapper, or null if not enabled (see JomniBuilder.setMetricsEnabled)
+	 */
+	public JomniMetrics getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * <p>Return the compiled PropertyPath for this root class and dotted path (e.g., "company.name"), built on first
+	 * call and then cached.</p>
+	 *
+	 * <p>The paths of a Map root class are not cached (the Map keys are not known upfront, so there is nothing to
+	 * pre-resolve, and the keys might come from the payloads), and at most 256 paths are cached per POJO root class
+	 * (the other ones are built on each call).</p>
+	 */
+	public PropertyPath getPropertyPath(Class rootClass, String path) {
+		if (Map.class.isAssignableFrom(rootClass)) {
+			return new PropertyPath(this, rootClass, path);
+		}
+		Map<String, PropertyPath> pathByName = propertyPaths.get(rootClass);
+		PropertyPath propertyPath = pathByName.get(path);
+		if (propertyPath == null) {
+			propertyPath = new PropertyPath(this, rootClass, path);
+			// Note: the bound can be slightly exceeded under concurrency, which is fine
+			if (pathByName.size() < MAX_PATHS_PER_CLASS) {
+				PropertyPath existing = pathByName.putIfAbsent(path, propertyPath);
+				propertyPath = (existing != null) ? existing : propertyPath;
+			}
+		}
+		return propertyPath;
+	}
 
 	// --------- /Public APIs --------- //
 
+	// --------- Public Bulk APIs --------- //
+	/**
+	 * <p>Convert all the values of a collection to the targetClass (same as as(targetClass, value) for each value).</p>
+	 *
+	 * <p>The conversion is resolved once per source class (so, once for a homogeneous collection), the results are
+	 * preallocated, and when the size is above the parallel threshold (see JomniBuilder.setParallelThreshold), the
+	 * values are converted in parallel on the ForkJoinPool. The order is always preserved.</p>
+	 *
+	 * @return a fixed-size list (like Arrays.asList) of the converted values, in the same order.
+	 */
+	public <R> List<R> asList(Class<R> targetClass, Collection<?> values) {
+		return Arrays.asList((R[]) convertAll(targetClass, values.toArray(), new Object[values.size()]));
+	}
+
+	/**
+	 * Same as asList, but return a targetClass array (targetClass cannot be a primitive class).
+	 */
+	public <R> R[] asArray(Class<R> targetClass, Collection<?> values) {
+		R[] results = (R[]) Array.newInstance(targetClass, values.size());
+		return (R[]) convertAll(targetClass, values.toArray(), results);
+	}
+
+	/**
+	 * Same as asList, for all the remaining values of the spliterator (e.g., stream.spliterator()).
+	 */
+	public <R> List<R> mapAll(Class<R> targetClass, Spliterator<?> values) {
+		Object[] sourceValues;
+		long size = values.getExactSizeIfKnown();
+		if (size >= 0 && size < Integer.MAX_VALUE) {
+			Object[] sized = new Object[(int) size];
+			int[] idx = {0};
+			values.forEachRemaining(value -> sized[idx[0]++] = value);
+			sourceValues = sized;
+		} else {
+			List<Object> list = new ArrayList<>();
+			values.forEachRemaining(list::add);
+			sourceValues = list.toArray();
+		}
+		return Arrays.asList((R[]) convertAll(targetClass, sourceValues, new Object[sourceValues.length]));
+	}
+	/**
+	 * <p>Return a RowMapper that maps positional rows (Object[] values, in the order of the names) into targetClass
+	 * objects, without any per row Map or name lookup.</p>
+	 *
+	 * @param names the column names (e.g., the JDBC or CSV header), matched to the targetClass property names.
+	 */
+	public <R> RowMapper<R> rowMapper(Class<R> targetClass, String... names) {
+		return new RowMapper<>(this, targetClass, names);
+	}
+	// --------- /Public Bulk APIs --------- //
+
 	// --------- Public Omni Factory --------- //
 	public <T> Omni<T> as(Supplier<T> supplier) {
 		T obj = supplier.get();
@@ -118,59 +387,196 @@ public class JomniMapper {
 
 
 
-	private <T, R> Pair<ConvertType, TypeConverter<T, R>> getConvertInfo(T instance, Class<R> targetClass) {
-		boolean isNull = (instance == null);
+	/**
+	 * Return the ConvertInfo for this source/target class pair (computed on first call).
+	 */
+	ConvertInfo getConvertInfo(Class sourceClass, Class targetClass) {
+		ConvertInfo info = convertInfos.get(sourceClass, targetClass);
+		if (info == null) {
+			info = computeConvertInfo(sourceClass, targetClass);
+			if (metrics != null) {
+				metrics.resolutionMiss();
+				info.metrics = metrics.pairMetrics(info, targetClass);
+			}
+			info = convertInfos.putIfAbsent(sourceClass, targetClass, info);
+		} else if (metrics != null) {
+			metrics.resolutionHit();
+		}
+		return info;
+	}
 
-		if (instance != null && (targetClass.equals(instance.getClass()) || targetClass.isAssignableFrom(instance.getClass()))) {
-			return new Pair(ConvertType.identity, null);
+	private ConvertInfo computeConvertInfo(Class sourceClass, Class targetClass) {
+		// a value already implementing an interface without implementation class (e.g., a String for CharSequence, a
+		// TreeSet for Set) is used as is. Note: Map and List keep the copy semantic (e.g., a TreeMap to a new HashMap).
+		if (targetClass.isInterface() && !implByInterface.containsKey(targetClass) && targetClass.isAssignableFrom(sourceClass)) {
+			return new ConvertInfo(sourceClass, ConvertType.identity, null, targetClass);
 		}
 
-		Class sourceClass = (isNull) ? null : instance.getClass();
-		if (!isNull) {
-			TypeConverter typeConverter = converterRegistry.resolveTypeConverter(sourceClass, targetClass);
-			if (typeConverter != null) {
-				return new Pair(ConvertType.converter, typeConverter);
+		// if targetClass is an interface, try to find the implClass (if not, it will fail at conversion time)
+		if (targetClass.isInterface()) {
+			Class implClass = (compactMaps && targetClass == Map.class && !Map.class.isAssignableFrom(sourceClass))
+					? ShapeMap.class : implByInterface.get(targetClass);
+			if (implClass == null) {
+				return new ConvertInfo(sourceClass, ConvertType.none, null, targetClass);
 			}
+			targetClass = implClass;
 		}
 
-		// now, if no type converters and if instance is null, then, the none convert type will be applied
-		if (instance == null) {
-			return new Pair(ConvertType.none, null);
+		// Note: the wrapper to its primitive (e.g., Boolean to boolean) is identity as well (unboxed by the writer)
+		if (targetClass.isAssignableFrom(sourceClass) || (targetClass.isPrimitive() && Accessors.wrap(targetClass) == sourceClass)) {
+			return new ConvertInfo(sourceClass, ConvertType.identity, null, targetClass);
 		}
 
-		return new Pair(ConvertType.complex, null);
-	}
+		TypeConverter typeConverter = converterRegistry.resolveTypeConverter(sourceClass, targetClass);
+		if (typeConverter != null) {
+			return new ConvertInfo(sourceClass, ConvertType.converter, typeConverter, targetClass);
+		}
 
+		// no converter to a primitive, and a primitive cannot be a complex target
+		if (targetClass.isPrimitive()) {
+			return new ConvertInfo(sourceClass, ConvertType.none, null, targetClass);
+		}
 
+		return new ConvertInfo(sourceClass, ConvertType.complex, null, targetClass);
+	}
 
 	public ClassInfo getClassInfo(Class cls) {
-		ClassInfo ci = classInfoByClass.get(cls);
+		return classInfoCache.get(cls);
+	}
 
-		// if null we build it and put it in cache.
-		// Note, for performance reason this method is not synchronized,
-		// worst case scenario, we create the same ClassInfo twice, but not big deal
-		// since classInfoByClass is Concurrent.
-		if (ci == null) {
-			ci = new ClassInfo(cls);
-			classInfoByClass.put(cls, ci);
-		}
-		return ci;
+	/**
+	 * @return a snapshot of the ClassInfo cache statistics (hits, misses, build time, ...)
+	 */
+	public ClassInfoCache.Stats getClassInfoCacheStats() {
+		return classInfoCache.getStats();
 	}
 
+	/**
+	 * Return the compiled MappingPlan for this source/target class pair (built on first call).
+	 */
+	MappingPlan getMappingPlan(Class sourceClass, Class targetClass) {
+		MappingPlan plan = mappingPlans.get(sourceClass, targetClass);
+		if (plan == null) {
+			plan = mappingPlans.putIfAbsent(sourceClass, targetClass, new MappingPlan(this, sourceClass, targetClass));
+		}
+		return plan;
+	}
 
 	// --------- Helpers --------- //
-	private <T, R> R convert(ConvertType convertType, TypeConverter<T, R> typeConverter, T source, Class<R> targetClass) {
-		switch (convertType) {
+	boolean isDeepMapping() {
+		return deepMapping;
+	}
+
+	/**
+	 * @return the listener if there is one and this call is sampled, otherwise null (so, with no listener, just a
+	 * null check).
+	 */
+	MapperListener sampledListener() {
+		MapperListener l = listener;
+		if (l != null && (listenerSampleRate == 1 || ThreadLocalRandom.current().nextDouble() < listenerSampleRate)) {
+			return l;
+		}
+		return null;
+	}
+
+	private <R> R convertListened(MapperListener sampledListener, Class targetClass, ConvertInfo info, Object value) {
+		sampledListener.beforeAs(targetClass, value);
+		long start = System.nanoTime();
+		R result;
+		try {
+			result = (metrics == null) ? convert(info, value, sampledListener) : convertTimed(info, value, sampledListener);
+		} catch (RuntimeException e) {
+			sampledListener.onAsError(targetClass, value, e);
+			throw e;
+		}
+		sampledListener.afterAs(targetClass, value, result, System.nanoTime() - start);
+		return result;
+	}
+
+	/**
+	 * Convert a non null value (of info.sourceClass) following the ConvertInfo.
+	 */
+	<R> R convert(ConvertInfo info, Object value) {
+		return convert(info, value, null);
+	}
+
+	/**
+	 * Same as convert(info, value), reporting the property writes of a complex conversion to the listener (if not
+	 * null). The listener is sampled once by the top-level call (e.g., as), not per property.
+	 */
+	private <R> R convert(ConvertInfo info, Object value, MapperListener listener) {
+		switch (info.convertType) {
 			case identity:
-				return (R) source;
-			case none:
-				return null; // TODO: later, return default null
+				return (R) value;
 			case converter:
-				return typeConverter.convert(source);
+				return (R) info.typeConverter.convert(value);
 			case complex:
-				return as(targetClass, source);
+				return (R) info.getMappingPlan(this).map(value, listener);
 			default:
-				throw new RuntimeException("Mapper.convert: no ConvertType for " + source);
+				throw MapperException.noResolverFoundFor(info.sourceClass, info.targetClass);
+		}
+	}
+	private Object[] convertAll(Class targetClass, Object[] values, Object[] results) {
+		if (parallelThreshold > 0 && values.length >= parallelThreshold) {
+			int leafSize = Math.max(1024, values.length / (forkJoinPool.getParallelism() * 4));
+			forkJoinPool.invoke(new ConvertAllTask(targetClass, values, results, 0, values.length, leafSize));
+		} else {
+			convertAll(targetClass, values, results, 0, values.length);
+		}
+		return results;
+	}
+
+	private void convertAll(Class targetClass, Object[] values, Object[] results, int from, int to) {
+		ConvertInfo info = null;
+		for (int i = from; i < to; i++) {
+			Object value = values[i];
+			if (value == null) {
+				results[i] = null;
+				continue;
+			}
+			// resolved only when the value class change (i.e., once for a homogeneous collection)
+			if (info == null || info.sourceClass != value.getClass()) {
+				info = getConvertInfo(value.getClass(), targetClass);
+			}
+			results[i] = (metrics == null) ? convert(info, value) : convertTimed(info, value, null);
+		}
+	}
+
+	private <R> R convertTimed(ConvertInfo info, Object value, MapperListener listener) {
+		long start = System.nanoTime();
+		R result = convert(info, value, listener);
+		metrics.record(info, System.nanoTime() - start);
+		return result;
+	}
+
+	private class ConvertAllTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final Class targetClass;
+		private final Object[] values;
+		private final Object[] results;
+		private final int from;
+		private final int to;
+		private final int leafSize;
+
+		ConvertAllTask(Class targetClass, Object[] values, Object[] results, int from, int to, int leafSize) {
+			this.targetClass = targetClass;
+			this.values = values;
+			this.results = results;
+			this.from = from;
+			this.to = to;
+			this.leafSize = leafSize;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= leafSize) {
+				convertAll(targetClass, values, results, from, to);
+			} else {
+				int mid = (from + to) >>> 1;
+				invokeAll(new ConvertAllTask(targetClass, values, results, from, mid, leafSize),
+						new ConvertAllTask(targetClass, values, results, mid, to, leafSize));
+			}
 		}
 	}
 	// --------- /Helpers --------- //
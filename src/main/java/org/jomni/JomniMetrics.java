@@ -0,0 +1,401 @@
+/*
+ * Copyright: 2014 Jeremy Chone
+ * License: Apache V2 http://www.apache.org/licenses/LICENSE-2.0
+ */
+
+package org.jomni;
+
+import org.jomni.util.Pair;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.jomni.util.Pair.newPair;
+
+/**
+ * <p>Opt-in metrics of a JomniMapper (see JomniBuilder.setMetricsEnabled and JomniMapper.getMetrics).</p>
+ *
+ * <ul>
+ *     <li>Per source/target class pair conversion counts and latency histograms (log2 nanosecond buckets), for the
+ *     JomniMapper.as and bulk conversions.</li>
+ *     <li>The identity/converter/complex conversion counts.</li>
+ *     <li>The conversion resolution (ConvertInfo cache) hits and misses, and the ClassInfo cache statistics.</li>
+ * </ul>
+ *
+ * <p>All the counters are LongAdders (no lock, no contention), and the per pair metrics are bound to the cached
+ * ConvertInfo, so recording is a couple of increments and two System.nanoTime calls. Note that the pair metrics keep
+ * a strong reference to their classes.</p>
+ *
+ * <p>Available as a plain snapshot (see snapshot()) or as a JMX MBean (see registerMBean).</p>
+ */
+public class JomniMetrics implements JomniMetricsMBean {
+
+	// log2(nanos) latency buckets, the last one is for anything above 2^(BUCKETS-1) ns (~ 4.6 min)
+	static final int BUCKETS = 39;
+
+	private final ClassInfoCache classInfoCache;
+
+	private final LongAdder identityCount = new LongAdder();
+	private final LongAdder converterCount = new LongAdder();
+	private final LongAdder complexCount = new LongAdder();
+	private final LongAdder resolutionHits = new LongAdder();
+	private final LongAdder resolutionMisses = new LongAdder();
+
+	private final Map<Pair<Class, Class>, PairMetrics> pairMetrics = new ConcurrentHashMap<>();
+
+	private volatile ObjectName mbeanName;
+
+	JomniMetrics(ClassInfoCache classInfoCache) {
+		this.classInfoCache = classInfoCache;
+	}
+
+	// --------- Recording --------- //
+	void resolutionHit() {
+		resolutionHits.increment();
+	}
+
+	void resolutionMiss() {
+		resolutionMisses.increment();
+	}
+
+	/**
+	 * @return the PairMetrics for this ConvertInfo (one per source/target pair).
+	 */
+	PairMetrics pairMetrics(ConvertInfo info, Class targetClass) {
+		return pairMetrics.computeIfAbsent(newPair(info.sourceClass, targetClass), pair -> new PairMetrics(pair.getA(), pair.getB(), info.convertType));
+	}
+
+	void record(ConvertInfo info, long nanos) {
+		switch (info.convertType) {
+			case identity:
+				identityCount.increment();
+				break;
+			case converter:
+				converterCount.increment();
+				break;
+			case complex:
+				complexCount.increment();
+				break;
+		}
+		PairMetrics pm = info.metrics;
+		if (pm != null) {
+			pm.record(nanos);
+		}
+	}
+	// --------- /Recording --------- //
+
+	// --------- Snapshot --------- //
+	public Snapshot snapshot() {
+		List<PairSnapshot> pairs = new ArrayList<>(pairMetrics.size());
+		for (PairMetrics pm : pairMetrics.values()) {
+			pairs.add(pm.snapshot());
+		}
+		Collections.sort(pairs, (a, b) -> Long.compare(b.getCount(), a.getCount()));
+		return new Snapshot(identityCount.sum(), converterCount.sum(), complexCount.sum(), resolutionHits.sum(),
+				resolutionMisses.sum(), classInfoCache.getStats(), Collections.unmodifiableList(pairs));
+	}
+	// --------- /Snapshot --------- //
+
+	// --------- JMX --------- //
+	/**
+	 * Register this metrics in the platform MBeanServer under this object name (e.g., "org.jomni:type=JomniMetrics,name=main").
+	 */
+	public void registerMBean(String objectName) {
+		try {
+			ObjectName name = new ObjectName(objectName);
+			ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+			mbeanName = name;
+		} catch (JMException e) {
+			throw new IllegalStateException("Cannot register JomniMetrics MBean " + objectName, e);
+		}
+	}
+
+	/**
+	 * Unregister this metrics MBean (if registered).
+	 */
+	public void unregisterMBean() {
+		ObjectName name = mbeanName;
+		if (name != null) {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			try {
+				if (server.isRegistered(name)) {
+					server.unregisterMBean(name);
+				}
+			} catch (JMException e) {
+				throw new IllegalStateException("Cannot unregister JomniMetrics MBean " + name, e);
+			}
+			mbeanName = null;
+		}
+	}
+
+	@Override
+	public long getConversionCount() {
+		return identityCount.sum() + converterCount.sum() + complexCount.sum();
+	}
+
+	@Override
+	public long getIdentityCount() {
+		return identityCount.sum();
+	}
+
+	@Override
+	public long getConverterCount() {
+		return converterCount.sum();
+	}
+
+	@Override
+	public long getComplexCount() {
+		return complexCount.sum();
+	}
+
+	@Override
+	public double getComplexRatio() {
+		long total = getConversionCount();
+		return (total > 0) ? (double) complexCount.sum() / total : 0;
+	}
+
+	@Override
+	public long getResolutionHits() {
+		return resolutionHits.sum();
+	}
+
+	@Override
+	public long getResolutionMisses() {
+		return resolutionMisses.sum();
+	}
+
+	@Override
+	public int getClassInfoCacheSize() {
+		return classInfoCache.getStats().getSize();
+	}
+
+	@Override
+	public long getClassInfoCacheHits() {
+		return classInfoCache.getStats().getHits();
+	}
+
+	@Override
+	public long getClassInfoCacheMisses() {
+		return classInfoCache.getStats().getMisses();
+	}
+
+	@Override
+	public long getClassInfoCacheBuildNanos() {
+		return classInfoCache.getStats().getBuildNanos();
+	}
+
+	@Override
+	public String[] getPairSummaries() {
+		List<PairSnapshot> pairs = snapshot().getPairs();
+		String[] summaries = new String[pairs.size()];
+		for (int i = 0; i < summaries.length; i++) {
+			summaries[i] = pairs.get(i).toString();
+		}
+		return summaries;
+	}
+	// --------- /JMX --------- //
+
+	// --------- PairMetrics --------- //
+	static final class PairMetrics {
+		private final Class sourceClass;
+		private final Class targetClass;
+		private final JomniMapper.ConvertType convertType;
+		private final LongAdder count = new LongAdder();
+		private final LongAdder totalNanos = new LongAdder();
+		private final LongAdder[] buckets = new LongAdder[BUCKETS];
+
+		PairMetrics(Class sourceClass, Class targetClass, JomniMapper.ConvertType convertType) {
+			this.sourceClass = sourceClass;
+			this.targetClass = targetClass;
+			this.convertType = convertType;
+			for (int i = 0; i < BUCKETS; i++) {
+				buckets[i] = new LongAdder();
+			}
+		}
+
+		void record(long nanos) {
+			count.increment();
+			totalNanos.add(nanos);
+			// bucket i holds the latencies in [2^(i-1), 2^i) ns (bucket 0 for 0)
+			int bucket = 64 - Long.numberOfLeadingZeros(Math.max(0, nanos));
+			buckets[Math.min(bucket, BUCKETS - 1)].increment();
+		}
+
+		PairSnapshot snapshot() {
+			long[] histogram = new long[BUCKETS];
+			for (int i = 0; i < BUCKETS; i++) {
+				histogram[i] = buckets[i].sum();
+			}
+			return new PairSnapshot(sourceClass, targetClass, convertType.name(), count.sum(), totalNanos.sum(), histogram);
+		}
+	}
+	// --------- /PairMetrics --------- //
+
+	/**
+	 * Immutable snapshot of the JomniMetrics.
+	 */
+	public static class Snapshot {
+		private final long identityCount;
+		private final long converterCount;
+		private final long complexCount;
+		private final long resolutionHits;
+		private final long resolutionMisses;
+		private final ClassInfoCache.Stats classInfoCacheStats;
+		private final List<PairSnapshot> pairs;
+
+		Snapshot(long identityCount, long converterCount, long complexCount, long resolutionHits, long resolutionMisses,
+		         ClassInfoCache.Stats classInfoCacheStats, List<PairSnapshot> pairs) {
+			this.identityCount = identityCount;
+			this.converterCount = converterCount;
+			this.complexCount = complexCount;
+			this.resolutionHits = resolutionHits;
+			this.resolutionMisses = resolutionMisses;
+			this.classInfoCacheStats = classInfoCacheStats;
+			this.pairs = pairs;
+		}
+
+		public long getIdentityCount() {
+			return identityCount;
+		}
+
+		public long getConverterCount() {
+			return converterCount;
+		}
+
+		public long getComplexCount() {
+			return complexCount;
+		}
+
+		/**
+		 * @return the number of ConvertInfo cache hits (i.e., the conversion decision for the source/target pair was
+		 * already resolved)
+		 */
+		public long getResolutionHits() {
+			return resolutionHits;
+		}
+
+		/**
+		 * @return the number of ConvertInfo cache misses (i.e., the converter lookup had to be done)
+		 */
+		public long getResolutionMisses() {
+			return resolutionMisses;
+		}
+
+		public ClassInfoCache.Stats getClassInfoCacheStats() {
+			return classInfoCacheStats;
+		}
+
+		/**
+		 * @return the per source/target pair metrics, most used first
+		 */
+		public List<PairSnapshot> getPairs() {
+			return pairs;
+		}
+
+		/**
+		 * @return the pair metrics for this source/target class pair (null if none)
+		 */
+		public PairSnapshot getPair(Class sourceClass, Class targetClass) {
+			for (PairSnapshot pair : pairs) {
+				if (pair.sourceClass == sourceClass && pair.targetClass == targetClass) {
+					return pair;
+				}
+			}
+			return null;
+		}
+	}
+
+	/**
+	 * Immutable snapshot of the metrics of a source/target class pair.
+	 */
+	public static class PairSnapshot {
+		private final Class sourceClass;
+		private final Class targetClass;
+		private final String convertType;
+		private final long count;
+		private final long totalNanos;
+		private final long[] histogram;
+
+		PairSnapshot(Class sourceClass, Class targetClass, String convertType, long count, long totalNanos, long[] histogram) {
+			this.sourceClass = sourceClass;
+			this.targetClass = targetClass;
+			this.convertType = convertType;
+			this.count = count;
+			this.totalNanos = totalNanos;
+			this.histogram = histogram;
+		}
+
+		public Class getSourceClass() {
+			return sourceClass;
+		}
+
+		public Class getTargetClass() {
+			return targetClass;
+		}
+
+		/**
+		 * @return identity, converter, complex, or none
+		 */
+		public String getConvertType() {
+			return convertType;
+		}
+
+		public long getCount() {
+			return count;
+		}
+
+		public long getTotalNanos() {
+			return totalNanos;
+		}
+
+		public long getMeanNanos() {
+			return (count > 0) ? totalNanos / count : 0;
+		}
+
+		/**
+		 * @return the latency histogram, where histogram[i] is the number of conversions that took [2^(i-1), 2^i) ns
+		 */
+		public long[] getHistogram() {
+			return histogram.clone();
+		}
+
+		/**
+		 * @param percentile between 0 and 100 (e.g., 99)
+		 * @return the upper bound, in nanoseconds, of the histogram bucket of this percentile (0 if no conversion)
+		 */
+		public long getPercentileNanos(double percentile) {
+			long total = 0;
+			for (long c : histogram) {
+				total += c;
+			}
+			if (total == 0) {
+				return 0;
+			}
+			long rank = (long) Math.ceil(total * percentile / 100);
+			long seen = 0;
+			for (int i = 0; i < histogram.length; i++) {
+				seen += histogram[i];
+				if (seen >= rank && histogram[i] > 0) {
+					return 1L << i;
+				}
+			}
+			return 1L << (histogram.length - 1);
+		}
+
+		@Override
+		public String toString() {
+			return new StringBuilder(sourceClass.getName()).append(" -> ").append(targetClass.getName())
+					.append(" [").append(convertType).append(" count=").append(count)
+					.append(" meanNanos=").append(getMeanNanos()).append(" p99Nanos=").append(getPercentileNanos(99))
+					.append("]").toString();
+		}
+	}
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright: 2014 Jeremy Chone
+ * License: Apache V2 http://www.apache.org/licenses/LICENSE-2.0
+ */
+
+package org.jomni;
+
+/**
+ * JMX interface of the JomniMetrics (see JomniMetrics.registerMBean).
+ */
+public interface JomniMetricsMBean {
+
+	long getConversionCount();
+
+	long getIdentityCount();
+
+	long getConverterCount();
+
+	long getComplexCount();
+
+	/**
+	 * @return the complex conversions / all conversions ratio (0 if no conversion yet)
+	 */
+	double getComplexRatio();
+
+	long getResolutionHits();
+
+	long getResolutionMisses();
+
+	int getClassInfoCacheSize();
+
+	long getClassInfoCacheHits();
+
+	long getClassInfoCacheMisses();
+
+	long getClassInfoCacheBuildNanos();
+
+	/**
+	 * @return one summary line per source/target class pair (count, mean and p99 latency), most used first
+	 */
+	String[] getPairSummaries();
+}
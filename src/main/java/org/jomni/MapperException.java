@@ -5,7 +5,7 @@ import java.util.Objects;
 public class MapperException extends RuntimeException {
 
 	public enum Error{
-		CANNOT_FIND_RESOLVER;
+		CANNOT_FIND_RESOLVER, CANNOT_INSTANTIATE, CYCLE_IN_CREATOR;
 	}
 
 	private final Error error;
@@ -29,4 +29,14 @@ public class MapperException extends RuntimeException {
 		return new MapperException(Error.CANNOT_FIND_RESOLVER, msg);
 	}
 
+	static public MapperException cannotInstantiate(Class cls) {
+		String msg = String.format("Cannot instantiate class %s (needs a no-arg constructor or a creator constructor, see JomniCreator)", cls.getName());
+		return new MapperException(Error.CANNOT_INSTANTIATE, msg);
+	}
+
+	static public MapperException cycleInCreator(Class cls) {
+		String msg = String.format("Cannot deep map a cycle through the creator constructor arguments of class %s", cls.getName());
+		return new MapperException(Error.CYCLE_IN_CREATOR, msg);
+	}
+
 }
@@ -0,0 +1,55 @@
+/*
+ * Copyright: 2014 Jeremy Chone
+ * License: Apache V2 http://www.apache.org/licenses/LICENSE-2.0
+ */
+
+package org.jomni;
+
+/**
+ * <p>Per call hooks of a JomniMapper (see JomniBuilder.setMapperListener), to trace the conversions (e.g., find the
+ * payloads causing latency spikes). All the methods have an empty default implementation.</p>
+ *
+ * <p>The listener is called only for the sampled calls (each top-level call is sampled once with the builder sample
+ * rate, and its property events follow that decision). The listener is called on the converting thread, so it must be
+ * fast and thread safe.</p>
+ */
+public interface MapperListener {
+
+	/**
+	 * Called before a JomniMapper.as conversion (value is never null)
+	 */
+	default void beforeAs(Class targetClass, Object value) {
+	}
+
+	/**
+	 * Called after a successful JomniMapper.as conversion, with its duration in nanoseconds
+	 */
+	default void afterAs(Class targetClass, Object value, Object result, long nanos) {
+	}
+
+	/**
+	 * Called when a JomniMapper.as conversion fails (the error is then rethrown)
+	 */
+	default void onAsError(Class targetClass, Object value, Throwable error) {
+	}
+
+	/**
+	 * Called before an Omni.setAll (source is never null)
+	 */
+	default void beforeSetAll(Object target, Object source) {
+	}
+
+	/**
+	 * Called after an Omni.setAll, with its duration in nanoseconds
+	 */
+	default void afterSetAll(Object target, Object source, long nanos) {
+	}
+
+	/**
+	 * Called after a POJO property has been converted and set (by a complex conversion, a setAll, an Omni.put, or a
+	 * RowMapper row), with its duration in nanoseconds. The value is the value before conversion. Only the properties of
+	 * the top-level object are reported (a nested conversion is part of its parent property duration).
+	 */
+	default void onPropertySet(Object target, String propName, Object value, long nanos) {
+	}
+}
@@ -0,0 +1,296 @@
+/*
+ * Copyright: 2014 Jeremy Chone
+ * License: Apache V2 http://www.apache.org/licenses/LICENSE-2.0
+ */
+
+package org.jomni;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.jomni.util.ShapeMap;
+
+/**
+ * <p>Compiled mapping from a source class to a target class (POJO or Map), used by the complex JomniMapper.as and
+ * Omni.setAll.</p>
+ *
+ * <p>The plan is built once per source/target class pair (see JomniMapper.getMappingPlan) and holds the ordered list
+ * of the matched properties with their reader, writer, and target type. The ConvertInfo of each property is bound on
+ * first use for the runtime class of the value (and re-bound only if the value class changes), so applying a plan
+ * does not do any set algebra nor converter lookup.</p>
+ */
+class MappingPlan {
+
+	private enum Shape {
+		pojoToPojo, pojoToMap, mapToPojo, mapToMap
+	}
+
+	// the Omni.SetterRule flags (see ruleFlags)
+	static final int NOT_NULLS = 1 << Omni.SetterRule.not_nulls.ordinal();
+	static final int NO_OVERRIDE = 1 << Omni.SetterRule.no_override.ordinal();
+	static final int CHANGED_ONLY = 1 << Omni.SetterRule.changed_only.ordinal();
+
+	private final Class sourceClass;
+	private final Class targetClass;
+	private final Shape shape;
+	private final PropMapping[] propMappings;
+
+	private final ClassInfo targetInfo;
+	// the creator constructor arguments (null if the target is created with its no-arg constructor)
+	private final PropMapping[] creatorMappings;
+	// the shared key shape for the pojoToMap plans creating a compact ShapeMap (null otherwise)
+	private final ShapeMap.Shape mapShape;
+	// deep mapping mode (see JomniBuilder.setDeepMapping)
+	private final boolean deep;
+	// the mapToPojo property mappings by name (null for the other shapes)
+	private final Map<Object, PropMapping> propMappingByName;
+	// true if the target is a HashMap or LinkedHashMap to be created presized for the source values
+	private final boolean presizedMap;
+
+	MappingPlan(JomniMapper mapper, Class sourceClass, Class targetClass) {
+		this.sourceClass = sourceClass;
+		this.targetClass = targetClass;
+		this.deep = mapper.isDeepMapping();
+
+		boolean sourceIsMap = Map.class.isAssignableFrom(sourceClass);
+		boolean targetIsMap = Map.class.isAssignableFrom(targetClass);
+
+		List<PropMapping> mappings = new ArrayList<>();
+		ShapeMap.Shape compactShape = null;
+		if (sourceIsMap && targetIsMap) {
+			shape = Shape.mapToMap;
+		} else if (targetIsMap) {
+			// all the source properties, as is (in the shape key order for a compact map).
+			shape = Shape.pojoToMap;
+			ClassInfo sourceInfo = mapper.getClassInfo(sourceClass);
+			if (targetClass == ShapeMap.class) {
+				compactShape = sourceInfo.getMapShape();
+			}
+			for (PropInfo sourceProp : sourceInfo.getPropInfos()) {
+				mappings.add(new PropMapping(mapper, sourceProp.getName(), sourceProp.getReader(), null, null));
+			}
+		} else if (sourceIsMap) {
+			// all the writable target properties (the source map might or might not have the values)
+			shape = Shape.mapToPojo;
+			for (PropInfo targetProp : mapper.getClassInfo(targetClass).getPropInfos()) {
+				if (targetProp.getWriter() != null) {
+					mappings.add(new PropMapping(mapper, targetProp.getName(), null, targetProp, targetProp.getType()));
+				}
+			}
+		} else {
+			// the intersection of the readable source and writable target properties
+			shape = Shape.pojoToPojo;
+			ClassInfo sourceInfo = mapper.getClassInfo(sourceClass);
+			for (PropInfo targetProp : mapper.getClassInfo(targetClass).getPropInfos()) {
+				PropInfo sourceProp = sourceInfo.getPropInfo(targetProp.getName());
+				if (targetProp.getWriter() != null && sourceProp != null && sourceProp.getReader() != null) {
+					mappings.add(new PropMapping(mapper, targetProp.getName(), sourceProp.getReader(), targetProp, targetProp.getType()));
+				}
+			}
+		}
+		propMappings = mappings.toArray(new PropMapping[mappings.size()]);
+		mapShape = compactShape;
+		if (shape == Shape.mapToPojo) {
+			propMappingByName = new HashMap<>();
+			for (PropMapping pm : propMappings) {
+				propMappingByName.put(pm.name, pm);
+			}
+		} else {
+			propMappingByName = null;
+		}
+		presizedMap = targetClass == HashMap.class || targetClass == LinkedHashMap.class;
+
+		targetInfo = mapper.getClassInfo(targetClass);
+		if (targetInfo.hasCreator()) {
+			String[] names = targetInfo.getCreatorPropNames();
+			Class[] paramTypes = targetInfo.getCreatorParamTypes();
+			ClassInfo sourceInfo = (sourceIsMap) ? null : mapper.getClassInfo(sourceClass);
+			creatorMappings = new PropMapping[names.length];
+			for (int i = 0; i < names.length; i++) {
+				PropInfo sourceProp = (sourceInfo != null) ? sourceInfo.getPropInfo(names[i]) : null;
+				PropInfo targetProp = targetInfo.getPropInfo(names[i]);
+				Class elementType = (targetProp != null) ? targetProp.getGenericType().orElse(null) : null;
+				creatorMappings[i] = new PropMapping(mapper, names[i], (sourceProp != null) ? sourceProp.getReader() : null, null, paramTypes[i], elementType);
+			}
+		} else {
+			creatorMappings = null;
+		}
+	}
+
+	/**
+	 * Create a new target object from the source object (with the no-arg constructor and then apply, or with the creator
+	 * constructor). In deep mapping mode, a source already mapped in this call returns the same target.
+	 *
+	 * @param listener the listener sampled for the calling conversion, or null
+	 */
+	Object map(Object source, MapperListener listener) {
+		if (!deep) {
+			return create(source, null, listener);
+		}
+		DeepContext ctx = DeepContext.enter();
+		try {
+			Object existing = ctx.get(source, targetClass);
+			if (existing == DeepContext.CREATING) {
+				throw MapperException.cycleInCreator(targetClass);
+			}
+			return (existing != null) ? existing : create(source, ctx, listener);
+		} finally {
+			ctx.exit();
+		}
+	}
+
+	private Object create(Object source, DeepContext ctx, MapperListener listener) {
+		if (mapShape != null) {
+			// the values go straight into the compact map (same order as the shape keys)
+			Object[] values = new Object[propMappings.length];
+			for (int i = 0; i < values.length; i++) {
+				values[i] = propMappings[i].read(source);
+			}
+			return new ShapeMap(mapShape, values);
+		}
+		Object target;
+		if (presizedMap) {
+			int size = (shape == Shape.mapToMap) ? ((Map) source).size() : propMappings.length;
+			int capacity = (int) (size / 0.75f) + 1;
+			target = (targetClass == HashMap.class) ? new HashMap<>(capacity) : new LinkedHashMap<>(capacity);
+		} else if (creatorMappings == null) {
+			target = targetInfo.newInstance();
+		} else {
+			if (ctx != null) {
+				ctx.put(source, DeepContext.CREATING);
+			}
+			Object[] args = new Object[creatorMappings.length];
+			Map sourceMap = (source instanceof Map) ? (Map) source : null;
+			for (int i = 0; i < args.length; i++) {
+				PropMapping pm = creatorMappings[i];
+				Object value = (sourceMap != null) ? sourceMap.get(pm.name) : (pm.reader != null) ? pm.read(source) : null;
+				args[i] = pm.convertArg(value);
+			}
+			target = targetInfo.create(args);
+		}
+		if (ctx != null) {
+			// registered before the properties are set, so a cycle back to source gets this target
+			ctx.put(source, target);
+		}
+		applyProps(source, target, 0, null, listener);
+		return target;
+	}
+
+	/**
+	 * Set the matching properties of the source object into the target object (values are coerced to the target
+	 * property types for POJO targets), following the setter rules, and recording the written target properties.
+	 *
+	 * @param rules    the setter rule flags (see ruleFlags)
+	 * @param changed  if not null, the bits of the written properties (by target PropInfo index) are set in it (only
+	 *                 for a POJO target)
+	 * @param listener the listener sampled for the calling setAll, or null
+	 */
+	void apply(Object source, Object target, int rules, BitSet changed, MapperListener listener) {
+		if (!deep) {
+			applyProps(source, target, rules, changed, listener);
+			return;
+		}
+		DeepContext ctx = DeepContext.enter();
+		try {
+			ctx.put(source, target);
+			applyProps(source, target, rules, changed, listener);
+		} finally {
+			ctx.exit();
+		}
+	}
+
+	static int ruleFlags(Omni.SetterRule... rules) {
+		int flags = 0;
+		for (Omni.SetterRule rule : rules) {
+			flags |= 1 << rule.ordinal();
+		}
+		return flags;
+	}
+
+	private void applyProps(Object source, Object target, int rules, BitSet changed, MapperListener listener) {
+		switch (shape) {
+			case pojoToPojo:
+				for (PropMapping pm : propMappings) {
+					if (pm.write(target, pm.read(source), rules, listener) && changed != null) {
+						changed.set(pm.targetProp.getIndex());
+					}
+				}
+				break;
+			case pojoToMap:
+				Map targetMap = (Map) target;
+				for (PropMapping pm : propMappings) {
+					if (rules == 0) {
+						targetMap.put(pm.name, pm.read(source));
+					} else {
+						putValue(targetMap, pm.name, pm.read(source), rules);
+					}
+				}
+				break;
+			case mapToPojo:
+				applyMapToPojo((Map<?, ?>) source, target, rules, changed, listener);
+				break;
+			case mapToMap:
+				Map<Object, Object> map = (Map) target;
+				if (rules == 0) {
+					map.putAll((Map) source);
+				} else {
+					for (Map.Entry entry : ((Map<?, ?>) source).entrySet()) {
+						putValue(map, entry.getKey(), entry.getValue(), rules);
+					}
+				}
+				break;
+		}
+	}
+
+	/**
+	 * Iterate the smaller side: the source entries (one property lookup per entry) when the map has fewer entries
+	 * than the target properties, otherwise the target properties (one map lookup per property, plus a containsKey
+	 * only for the null values).
+	 */
+	private void applyMapToPojo(Map<?, ?> sourceMap, Object target, int rules, BitSet changed, MapperListener listener) {
+		if (sourceMap.size() < propMappings.length) {
+			for (Map.Entry<?, ?> entry : sourceMap.entrySet()) {
+				PropMapping pm = propMappingByName.get(entry.getKey());
+				if (pm != null && pm.write(target, entry.getValue(), rules, listener) && changed != null) {
+					changed.set(pm.targetProp.getIndex());
+				}
+			}
+		} else {
+			for (PropMapping pm : propMappings) {
+				Object value = sourceMap.get(pm.name);
+				if ((value != null || sourceMap.containsKey(pm.name)) && pm.write(target, value, rules, listener) && changed != null) {
+					changed.set(pm.targetProp.getIndex());
+				}
+			}
+		}
+	}
+
+	private static void putValue(Map map, Object key, Object value, int rules) {
+		if (value == null && (rules & NOT_NULLS) != 0) {
+			return;
+		}
+		if ((rules & (NO_OVERRIDE | CHANGED_ONLY)) != 0) {
+			Object current = map.get(key);
+			if ((rules & NO_OVERRIDE) != 0 && current != null) {
+				return;
+			}
+			if ((rules & CHANGED_ONLY) != 0 && Objects.deepEquals(value, current) && (current != null || map.containsKey(key))) {
+				return;
+			}
+		}
+		map.put(key, value);
+	}
+
+	Class getSourceClass() {
+		return sourceClass;
+	}
+
+	Class getTargetClass() {
+		return targetClass;
+	}
+}
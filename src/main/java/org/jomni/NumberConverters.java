@@ -0,0 +1,127 @@
+/*
+ * Copyright: 2014 Jeremy Chone
+ * License: Apache V2 http://www.apache.org/licenses/LICENSE-2.0
+ */
+
+package org.jomni;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <p>Direct Number to number type conversions (widening and narrowing), without going through String.</p>
+ *
+ * <p>When not checked, the conversions follow the Java primitive narrowing rules (e.g., 12.7 to long is 12). When
+ * checked, an ArithmeticException is thrown when the value does not fit the target type (overflow, or fractional
+ * part for the integral types). See JomniBuilder.setNumberOverflowCheck.</p>
+ */
+public class NumberConverters {
+
+	public static long toLong(Number number, boolean checked) {
+		if (!checked) {
+			return number.longValue();
+		}
+		if (isIntegral(number)) {
+			return number.longValue();
+		}
+		if (number instanceof BigInteger) {
+			return ((BigInteger) number).longValueExact();
+		}
+		if (number instanceof BigDecimal) {
+			return ((BigDecimal) number).longValueExact();
+		}
+		if (number instanceof Double || number instanceof Float) {
+			double d = number.doubleValue();
+			// Note: (double) Long.MAX_VALUE is 2^63, which does not fit in a long
+			if (d != Math.rint(d) || d < Long.MIN_VALUE || d >= (double) Long.MAX_VALUE) {
+				throw overflow(number, "long");
+			}
+			return (long) d;
+		}
+		// other Number types, exact from the String representation (a double would round above 2^53)
+		return new BigDecimal(number.toString()).longValueExact();
+	}
+
+	public static int toInt(Number number, boolean checked) {
+		if (!checked) {
+			return number.intValue();
+		}
+		long l = toLong(number, true);
+		if (l < Integer.MIN_VALUE || l > Integer.MAX_VALUE) {
+			throw overflow(number, "int");
+		}
+		return (int) l;
+	}
+
+	public static short toShort(Number number, boolean checked) {
+		if (!checked) {
+			return number.shortValue();
+		}
+		long l = toLong(number, true);
+		if (l < Short.MIN_VALUE || l > Short.MAX_VALUE) {
+			throw overflow(number, "short");
+		}
+		return (short) l;
+	}
+
+	public static byte toByte(Number number, boolean checked) {
+		if (!checked) {
+			return number.byteValue();
+		}
+		long l = toLong(number, true);
+		if (l < Byte.MIN_VALUE || l > Byte.MAX_VALUE) {
+			throw overflow(number, "byte");
+		}
+		return (byte) l;
+	}
+
+	public static double toDouble(Number number, boolean checked) {
+		double d = number.doubleValue();
+		if (checked && Double.isInfinite(d) && !isInfinite(number)) {
+			throw overflow(number, "double");
+		}
+		return d;
+	}
+
+	public static float toFloat(Number number, boolean checked) {
+		float f = number.floatValue();
+		if (checked && Float.isInfinite(f) && !isInfinite(number)) {
+			throw overflow(number, "float");
+		}
+		return f;
+	}
+
+	public static BigDecimal toBigDecimal(Number number) {
+		if (number instanceof BigDecimal) {
+			return (BigDecimal) number;
+		}
+		if (number instanceof BigInteger) {
+			return new BigDecimal((BigInteger) number);
+		}
+		if (isIntegral(number)) {
+			return BigDecimal.valueOf(number.longValue());
+		}
+		// Note: from the String representation, so that 12.12d stays 12.12 (and not 12.1199999...)
+		return new BigDecimal(number.toString());
+	}
+
+	// --------- Helpers --------- //
+	private static boolean isIntegral(Number number) {
+		return number instanceof Long || number instanceof Integer || number instanceof Short || number instanceof Byte
+				|| number instanceof AtomicLong || number instanceof AtomicInteger || number instanceof LongAdder
+				|| number instanceof LongAccumulator;
+	}
+
+	private static boolean isInfinite(Number number) {
+		return (number instanceof Double && ((Double) number).isInfinite()) || (number instanceof Float && ((Float) number).isInfinite());
+	}
+
+	private static ArithmeticException overflow(Number number, String type) {
+		return new ArithmeticException("Number " + number + " does not fit in a " + type);
+	}
+	// --------- /Helpers --------- //
+}
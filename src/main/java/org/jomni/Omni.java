@@ -1,7 +1,7 @@
 package org.jomni;
 
 
-import java.util.HashSet;
+import java.util.BitSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.function.Supplier;
@@ -13,8 +13,19 @@ import java.util.function.Supplier;
  */
 public class Omni<T> {
 
+	/**
+	 * The setAll rules, per property.
+	 */
 	public enum SetterRule {
-		not_nulls, no_override,
+		/** the null source values are not set */
+		not_nulls,
+		/**
+		 * the target values already set (not null) are not overridden (for a primitive property, the default value,
+		 * e.g., 0 or false, counts as not set)
+		 */
+		no_override,
+		/** the value is set only if it differs (equals, once coerced to the target type) from the target value */
+		changed_only,
 	}
 
 	private final Object obj;
@@ -22,6 +33,9 @@ public class Omni<T> {
 	private final ClassInfo classInfo;
 	private final JomniMapper mapper;
 
+	// the properties written by the last setAll (see getChangedProperties)
+	private BitSet changedProperties;
+
 	Omni(T o, JomniMapper mapper){
 		if (o instanceof Map){
 			map = (Map)o;
@@ -61,34 +75,55 @@ public class Omni<T> {
 
 	// --------- Setters --------- //
 	public Omni<T> setAll(Object sourceObj){
+		return setAll(sourceObj, 0);
+	}
+
+	/**
+	 * Set the source properties (as setAll(sourceObj)) following these rules (e.g., changed_only to not call the
+	 * setters of the unchanged values). See getChangedProperties for the properties actually written (only tracked
+	 * when at least one rule is given).
+	 */
+	public Omni<T> setAll(Object sourceObj, SetterRule... rules){
+		return setAll(sourceObj, MappingPlan.ruleFlags(rules));
+	}
+
+	private Omni<T> setAll(Object sourceObj, int rules){
 		// if this object is null or the sourceObj is null, then, do nothing and return this.
 		if (classInfo == null || sourceObj == null){
 			return this;
 		}
 
-		Omni jSource = (sourceObj instanceof Omni)?(Omni)sourceObj:mapper.omni(sourceObj);
-		Class targetClass = classInfo.getObjectClass();
-
-		// determining prop name
-		Set<String> propNames;
-		// if the target is a Map, then, all the source properties need to be set
-		if (Map.class.isAssignableFrom(targetClass)){
-			propNames = jSource.keySet();
-		}
-		// otherwise, if the target is an object, propNames is the intersection of target and source
-		else{
-			// make sure to copy
-			propNames = new HashSet<>(keySet());
-			propNames.retainAll(jSource.keySet());
+		Object source = (sourceObj instanceof Omni)?((Omni)sourceObj).get():sourceObj;
+		if (source == null){
+			return this;
 		}
 
-		for (String propName : propNames) {
-			Object value = jSource.get(propName);
-			set(propName,value);
+		// if the target is a Map, all the source properties are set, otherwise, only the intersection of target and source
+		MappingPlan plan = mapper.getMappingPlan(source.getClass(), classInfo.getObjectClass());
+		// the written properties are only tracked when a rule may skip some of them
+		BitSet changed = (rules != 0) ? new BitSet() : null;
+		MapperListener listener = mapper.sampledListener();
+		if (listener == null) {
+			plan.apply(source, get(), rules, changed, listener);
+		} else {
+			listener.beforeSetAll(get(), source);
+			long start = System.nanoTime();
+			plan.apply(source, get(), rules, changed, listener);
+			listener.afterSetAll(get(), source, System.nanoTime() - start);
 		}
+		changedProperties = changed;
 		return this;
 	}
 
+	/**
+	 * @return the properties written by the last setAll with setter rules, as bits indexed by the ClassInfo property
+	 * order (see PropInfo.getIndex). Empty for a Map target, and null if the last setAll had no rules (or no setAll
+	 * was done).
+	 */
+	public BitSet getChangedProperties(){
+		return changedProperties;
+	}
+
 	public Omni<T> set(String name, Object value){
 		put(name, value);
 		return this;
@@ -115,22 +150,45 @@ public class Omni<T> {
 	// --------- /Property Extra Methods --------- //
 
 	// --------- Map Like Methods --------- //
+	/**
+	 * Return the value of this property. The name can be a dotted path (e.g., "company.name") through POJOs and Maps.
+	 * For a Map, a key matching the full name takes precedence over the path.
+	 */
 	public Object get(String name){
 		if (map != null){
-			return map.get(name);
+			Object value = map.get(name);
+			if (value != null || name.indexOf('.') < 0 || map.containsKey(name)){
+				return value;
+			}
+			return mapper.getPropertyPath(map.getClass(), name).get(map);
+		}else if (name.indexOf('.') >= 0){
+			return mapper.getPropertyPath(obj.getClass(), name).get(obj);
 		}else {
 			return classInfo.getValue(obj, name);
 		}
 	}
 
+	/**
+	 * Set the value of this property (coerced to the property type for a POJO). The name can be a dotted path (e.g.,
+	 * "company.name"), in which case the null intermediate values are created. For a Map, the name is used as a
+	 * plain key if it is already a key or if the first path segment is not.
+	 */
 	public void put(String name, Object value){
-		if (map != null){
+		if (name.indexOf('.') >= 0 && (obj != null || isNestedPath(name))){
+			mapper.getPropertyPath(get().getClass(), name).set(get(), value);
+		}else if (map != null){
 			map.put(name,value);
 		}else{
-			Class propType = getType(name);
-			// Convert only if we have a propTargetType (otherwise, it is a map value, so, as is)
-			Object propValue = (propType != null)?mapper.as(propType, value):value;
-			classInfo.setValue(obj, name, propValue);
+			PropInfo propInfo = classInfo.getPropInfo(name);
+			if (propInfo != null && propInfo.getWriter() != null){
+				MapperListener listener = mapper.sampledListener();
+				long start = (listener != null) ? System.nanoTime() : 0;
+				ConvertInfo info = (value != null)?mapper.getConvertInfo(value.getClass(), propInfo.getType()):null;
+				propInfo.convertAndWrite(mapper, info, obj, value);
+				if (listener != null){
+					listener.onPropertySet(obj, name, value, System.nanoTime() - start);
+				}
+			}
 		}
 	}
 
@@ -151,4 +209,8 @@ public class Omni<T> {
 	}
 	// --------- /Map Like Methods --------- //
 
+	private boolean isNestedPath(String name){
+		return !map.containsKey(name) && map.containsKey(name.substring(0, name.indexOf('.')));
+	}
+
 }
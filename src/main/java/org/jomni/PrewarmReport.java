@@ -0,0 +1,59 @@
+/*
+ * Copyright: 2014 Jeremy Chone
+ * License: Apache V2 http://www.apache.org/licenses/LICENSE-2.0
+ */
+
+package org.jomni;
+
+import java.util.Map;
+
+/**
+ * Immutable report of a JomniMapper prewarm (see JomniMapper.prewarm and JomniBuilder.addPrewarmClasses).
+ */
+public class PrewarmReport {
+	private final int classCount;
+	private final int pairCount;
+	private final long nanos;
+	private final Map<String, String> errors;
+
+	PrewarmReport(int classCount, int pairCount, long nanos, Map<String, String> errors) {
+		this.classCount = classCount;
+		this.pairCount = pairCount;
+		this.nanos = nanos;
+		this.errors = errors;
+	}
+
+	/**
+	 * @return the number of classes prewarmed (ClassInfo, and the Map to/from class plans)
+	 */
+	public int getClassCount() {
+		return classCount;
+	}
+
+	/**
+	 * @return the number of source/target class pairs prewarmed (ConvertInfo and MappingPlan)
+	 */
+	public int getPairCount() {
+		return pairCount;
+	}
+
+	/**
+	 * @return the prewarm wall clock time, in nanoseconds
+	 */
+	public long getNanos() {
+		return nanos;
+	}
+
+	/**
+	 * @return the error message by class name (or "source -> target" for a pair) of the failed prewarms (empty if none)
+	 */
+	public Map<String, String> getErrors() {
+		return errors;
+	}
+
+	@Override
+	public String toString() {
+		return new StringBuilder("[classes=").append(classCount).append(" pairs=").append(pairCount)
+				.append(" millis=").append(nanos / 1000000).append(" errors=").append(errors.size()).append("]").toString();
+	}
+}
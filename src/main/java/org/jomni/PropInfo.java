@@ -5,8 +5,14 @@
 
 package org.jomni;
 
+import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ObjLongConsumer;
 
 /**
  * Created by jeremychone on 3/9/14.
@@ -14,18 +20,88 @@ import java.util.Optional;
 public class PropInfo {
 
 	private final String name;
-	private final Method readMethod;
-	private final Method writeMethod;
+	// Note: looked up on first get for the ClassAccessor properties (benign race, same Method)
+	private volatile Method readMethod;
+	private volatile Method writeMethod;
+	// the ClassAccessor property and its class (null for the other properties)
+	private final ClassAccessor.Property accessorProperty;
+	private final Class accessorClass;
+	// the field of a field access property (null for the read/write method ones)
+	private final Field field;
 	private final Class type;
 	private final Optional<Class> genericType;
 
+	// the fast accessors, generated once per property (null if no read/write method)
+	private final Function<Object, Object> reader;
+	private final BiConsumer<Object, Object> writer;
+
+	// the primitive writers, only for the setters with a long, int, or double parameter (to be used without boxing)
+	private final ObjLongConsumer<Object> longWriter;
+	private final ObjIntConsumer<Object> intWriter;
+	private final ObjDoubleConsumer<Object> doubleWriter;
+
+	// the position of this property in its ClassInfo (properties sorted by name), set by the ClassInfo
+	int index = -1;
+
 
 	public PropInfo(String name, Class type, Class genericType, Method writeMethod, Method readMethod) {
 		this.name = name;
 		this.type = type;
 		this.readMethod = readMethod;
 		this.writeMethod = writeMethod;
+		this.field = null;
+		this.accessorProperty = null;
+		this.accessorClass = null;
+		this.genericType = Optional.ofNullable(genericType);
+		this.reader = (readMethod != null) ? Accessors.reader(readMethod) : null;
+		this.writer = (writeMethod != null) ? Accessors.writer(writeMethod) : null;
+
+		Class paramType = (writeMethod != null) ? writeMethod.getParameterTypes()[0] : null;
+		this.longWriter = (paramType == Long.TYPE) ? Accessors.primitiveWriter(writeMethod, ObjLongConsumer.class) : null;
+		this.intWriter = (paramType == Integer.TYPE) ? Accessors.primitiveWriter(writeMethod, ObjIntConsumer.class) : null;
+		this.doubleWriter = (paramType == Double.TYPE) ? Accessors.primitiveWriter(writeMethod, ObjDoubleConsumer.class) : null;
+	}
+
+	/**
+	 * PropInfo of a compiled ClassAccessor property (the property is the reader, and the writer if writable). No
+	 * reflection is done, the read/write Methods are only looked up if getReadMethod/getWriteMethod get called.
+	 */
+	PropInfo(ClassAccessor.Property property, Class objectClass) {
+		this.name = property.getName();
+		this.type = property.getType();
+		this.readMethod = null;
+		this.writeMethod = null;
+		this.field = null;
+		this.accessorProperty = property;
+		this.accessorClass = objectClass;
+		this.genericType = Optional.ofNullable(property.getGenericType());
+		this.reader = property;
+		this.writer = (property.isWritable()) ? property : null;
+		this.longWriter = null;
+		this.intWriter = null;
+		this.doubleWriter = null;
+	}
+
+	/**
+	 * PropInfo of a field access property (see JomniBuilder.setFieldAccess), read and written through MethodHandle
+	 * field getter/setter (read only if the field is final).
+	 *
+	 * @param reader the field reader (see Accessors.fieldReader)
+	 */
+	PropInfo(Field field, Class type, Class genericType, Function<Object, Object> reader) {
+		this.name = field.getName();
+		this.type = type;
+		this.readMethod = null;
+		this.writeMethod = null;
+		this.field = field;
+		this.accessorProperty = null;
+		this.accessorClass = null;
 		this.genericType = Optional.ofNullable(genericType);
+		this.reader = reader;
+		this.writer = Accessors.fieldWriter(field);
+		this.longWriter = null;
+		this.intWriter = null;
+		this.doubleWriter = null;
 	}
 
 	public String getName() {
@@ -33,11 +109,84 @@ public class PropInfo {
 	}
 
 	public Method getReadMethod() {
-		return readMethod;
+		Method method = readMethod;
+		if (method == null && accessorProperty != null) {
+			method = accessorMethod(accessorProperty.getReadMethodName(), null);
+			readMethod = method;
+		}
+		return method;
 	}
 
 	public Method getWriteMethod() {
-		return writeMethod;
+		Method method = writeMethod;
+		if (method == null && accessorProperty != null && accessorProperty.isWritable()) {
+			method = accessorMethod(accessorProperty.getWriteMethodName(), type);
+			writeMethod = method;
+		}
+		return method;
+	}
+
+	/**
+	 * @param paramType the setter property type (the setter parameter type can be any type assignable from it, e.g.,
+	 *                  setId(Object) for the Long id of a BaseEntity&lt;Long&gt;), null for a getter
+	 */
+	private Method accessorMethod(String methodName, Class paramType) {
+		for (Method method : accessorClass.getMethods()) {
+			if (method.getName().equals(methodName) && ((paramType == null) ? method.getParameterCount() == 0
+					: method.getParameterCount() == 1 && method.getParameterTypes()[0].isAssignableFrom(paramType))) {
+				return method;
+			}
+		}
+		throw new RuntimeException(String.format("ClassAccessor property %s does not match a %s method of class %s", name, methodName, accessorClass.getName()));
+	}
+
+	/**
+	 * @return the field of a field access property (then, no read/write method), null otherwise.
+	 */
+	public Field getField() {
+		return field;
+	}
+
+	/**
+	 * @return the reader function (i.e., obj -> obj.getName()) for this property, or null if no read method.
+	 */
+	public Function<Object, Object> getReader() {
+		return reader;
+	}
+
+	/**
+	 * @return the writer function (i.e., (obj, val) -> obj.setName(val)) for this property, or null if no write method.
+	 */
+	public BiConsumer<Object, Object> getWriter() {
+		return writer;
+	}
+
+	/**
+	 * @return the writer for a long setter (null if the setter is not a long one).
+	 */
+	public ObjLongConsumer<Object> getLongWriter() {
+		return longWriter;
+	}
+
+	/**
+	 * @return the writer for an int setter (null if the setter is not an int one).
+	 */
+	public ObjIntConsumer<Object> getIntWriter() {
+		return intWriter;
+	}
+
+	/**
+	 * @return the writer for a double setter (null if the setter is not a double one).
+	 */
+	public ObjDoubleConsumer<Object> getDoubleWriter() {
+		return doubleWriter;
+	}
+
+	/**
+	 * @return the position of this property in its ClassInfo property order (by name), or -1 if not part of a ClassInfo
+	 */
+	public int getIndex() {
+		return index;
 	}
 
 	public Class getType() {
@@ -48,10 +197,40 @@ public class PropInfo {
 		return genericType;
 	}
 
+	/**
+	 * Convert the value following the ConvertInfo (for the value class to this property type) and write it to the
+	 * target object. For the long/int/double setters with a primitive converter, the value is written without boxing.
+	 */
+	void convertAndWrite(JomniMapper mapper, ConvertInfo info, Object target, Object value) {
+		if (info != null && info.convertType == JomniMapper.ConvertType.converter) {
+			TypeConverter typeConverter = info.typeConverter;
+			if (longWriter != null && typeConverter instanceof ToLongConverter) {
+				longWriter.accept(target, ((ToLongConverter) typeConverter).convertToLong(value));
+				return;
+			}
+			if (intWriter != null && typeConverter instanceof ToIntConverter) {
+				intWriter.accept(target, ((ToIntConverter) typeConverter).convertToInt(value));
+				return;
+			}
+			if (doubleWriter != null && typeConverter instanceof ToDoubleConverter) {
+				doubleWriter.accept(target, ((ToDoubleConverter) typeConverter).convertToDouble(value));
+				return;
+			}
+		}
+		writer.accept(target, (info != null) ? mapper.convert(info, value) : value);
+	}
+
 	public String toString() {
 		StringBuilder sb = new StringBuilder("[").append(type.getSimpleName());
 		genericType.ifPresent((gen) -> sb.append("<").append(gen.getSimpleName()).append(">"));
-		return sb.append(" ").append(name).append(" ").append(readMethod.getName()).append(" ").append(writeMethod.getName()).append("]").toString();
+		sb.append(" ").append(name);
+		if (field != null) {
+			return sb.append(" field").append("]").toString();
+		}
+		Method read = getReadMethod();
+		Method write = getWriteMethod();
+		return sb.append(" ").append((read != null) ? read.getName() : null)
+				.append(" ").append((write != null) ? write.getName() : null).append("]").toString();
 	}
 
 }
@@ -0,0 +1,160 @@
+/*
+ * Copyright: 2014 Jeremy Chone
+ * License: Apache V2 http://www.apache.org/licenses/LICENSE-2.0
+ */
+
+package org.jomni;
+
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * <p>A compiled property mapping (used by MappingPlan and RowMapper): the source reader (if any), and the target
+ * property (or target type for the creator arguments).</p>
+ *
+ * <p>The ConvertInfo is bound to the last value class (re-bound only when the value class changes), so once warm, no
+ * converter lookup is done.</p>
+ *
+ * <p>In deep mapping mode, the container targets (Collection, Map, array) are converted element-wise with an
+ * ElementPlan resolved once from the property generic type.</p>
+ */
+class PropMapping {
+	final JomniMapper mapper;
+	final String name;
+	final Function<Object, Object> reader;
+	// the target property (null for a Map target and for the creator arguments)
+	final PropInfo targetProp;
+	// the target property type (null for a Map target, as the values are set as is)
+	final Class targetType;
+
+	// the element-wise conversion for a container target in deep mapping mode (null otherwise)
+	private final ElementPlan elementPlan;
+
+	// the ConvertInfo for the last value class (immutable, so it is safe to be replaced without synchronization)
+	private ConvertInfo convertInfo;
+
+	PropMapping(JomniMapper mapper, String name, Function<Object, Object> reader, PropInfo targetProp, Class targetType) {
+		this(mapper, name, reader, targetProp, targetType, (targetProp != null) ? targetProp.getGenericType().orElse(null) : null);
+	}
+
+	/**
+	 * @param elementType the target element type (generic type) if the target is a container (only used in deep
+	 *                    mapping mode)
+	 */
+	PropMapping(JomniMapper mapper, String name, Function<Object, Object> reader, PropInfo targetProp, Class targetType, Class elementType) {
+		this.mapper = mapper;
+		this.name = name;
+		this.reader = reader;
+		this.targetProp = targetProp;
+		this.targetType = targetType;
+		this.elementPlan = (mapper.isDeepMapping() && targetType != null) ? ElementPlan.of(mapper, targetType, elementType) : null;
+	}
+
+	Object read(Object source) {
+		try {
+			return reader.apply(source);
+		} catch (Throwable e) {
+			throw new RuntimeException("Error while reading property " + name + " on object " + source + "\n" + e, e);
+		}
+	}
+
+	/**
+	 * @param listener the listener sampled for the calling conversion (or setAll), or null
+	 */
+	void write(Object target, Object value, MapperListener listener) {
+		if (listener == null) {
+			doWrite(target, value);
+		} else {
+			long start = System.nanoTime();
+			doWrite(target, value);
+			listener.onPropertySet(target, name, value, System.nanoTime() - start);
+		}
+	}
+
+	/**
+	 * Write the value following the setter rules (see Omni.SetterRule and MappingPlan.NOT_NULLS...).
+	 *
+	 * @return true if the value was written
+	 */
+	boolean write(Object target, Object value, int rules, MapperListener listener) {
+		if (rules == 0) {
+			write(target, value, listener);
+			return true;
+		}
+		if (value == null && (rules & MappingPlan.NOT_NULLS) != 0) {
+			return false;
+		}
+		Function<Object, Object> targetReader = targetProp.getReader();
+		if ((rules & (MappingPlan.NO_OVERRIDE | MappingPlan.CHANGED_ONLY)) != 0 && targetReader != null) {
+			Object current = targetReader.apply(target);
+			// Note: a primitive property is never null, so its default value (e.g., 0, false) counts as not set
+			if ((rules & MappingPlan.NO_OVERRIDE) != 0 && current != null
+					&& !(targetType.isPrimitive() && current.equals(Accessors.defaultValue(targetType)))) {
+				return false;
+			}
+			if ((rules & MappingPlan.CHANGED_ONLY) != 0) {
+				// compared once coerced to the target type (and written as is, to not convert twice)
+				Object converted = convert(value);
+				if (Objects.deepEquals(converted, current)) {
+					return false;
+				}
+				writeConverted(target, converted, listener);
+				return true;
+			}
+		}
+		write(target, value, listener);
+		return true;
+	}
+
+	private void writeConverted(Object target, Object converted, MapperListener listener) {
+		long start = (listener != null) ? System.nanoTime() : 0;
+		targetProp.getWriter().accept(target, converted);
+		if (listener != null) {
+			listener.onPropertySet(target, name, converted, System.nanoTime() - start);
+		}
+	}
+
+	private void doWrite(Object target, Object value) {
+		if (elementPlan != null && value != null) {
+			Object elements = elementPlan.convert(value);
+			if (elements != ElementPlan.NOT_HANDLED) {
+				targetProp.getWriter().accept(target, elements);
+				return;
+			}
+		}
+		targetProp.convertAndWrite(mapper, convertInfo(value), target, value);
+	}
+
+	Object convert(Object value) {
+		if (elementPlan != null && value != null) {
+			Object elements = elementPlan.convert(value);
+			if (elements != ElementPlan.NOT_HANDLED) {
+				return elements;
+			}
+		}
+		return (value != null) ? mapper.convert(convertInfo(value), value) : null;
+	}
+
+	/**
+	 * @return the value converted to the target type, or the target type default value (for primitive) if null.
+	 */
+	Object convertArg(Object value) {
+		Object arg = convert(value);
+		return (arg != null) ? arg : Accessors.defaultValue(targetType);
+	}
+
+	/**
+	 * @return the ConvertInfo for the value class to the target type (null for null value)
+	 */
+	private ConvertInfo convertInfo(Object value) {
+		if (value == null) {
+			return null;
+		}
+		ConvertInfo info = convertInfo;
+		if (info == null || info.sourceClass != value.getClass()) {
+			info = mapper.getConvertInfo(value.getClass(), targetType);
+			convertInfo = info;
+		}
+		return info;
+	}
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright: 2014 Jeremy Chone
+ * License: Apache V2 http://www.apache.org/licenses/LICENSE-2.0
+ */
+
+package org.jomni;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * <p>Compiled dotted property path (e.g., "company.info.name") to get or set a nested value through a mixed POJO/Map
+ * object graph. Get one with JomniMapper.getPropertyPath (cached per POJO root class and path), or use the Omni get/put
+ * with a dotted name.</p>
+ *
+ * <p>The path is split once, and the PropInfo of each segment is resolved for the declared property types at
+ * compile time. At runtime, a segment is re-bound only if the value class changes (e.g., a subclass, or a Map), so a
+ * get is a chain of reader calls and map lookups.</p>
+ */
+public final class PropertyPath {
+
+	private final JomniMapper mapper;
+	private final String path;
+	private final Segment[] segments;
+
+	PropertyPath(JomniMapper mapper, Class rootClass, String path) {
+		this.mapper = mapper;
+		this.path = path;
+
+		// split on '.' (no regex)
+		int count = 1;
+		for (int i = path.indexOf('.'); i >= 0; i = path.indexOf('.', i + 1)) {
+			count++;
+		}
+		segments = new Segment[count];
+		int start = 0;
+		Class type = rootClass;
+		for (int i = 0; i < count; i++) {
+			int end = path.indexOf('.', start);
+			end = (end < 0) ? path.length() : end;
+			Segment segment = new Segment(path.substring(start, end));
+			// pre-bind on the declared type, when it is concrete enough to be the runtime class
+			if (type != null && !type.isInterface() && type != Object.class) {
+				segment.bind(mapper, type);
+				PropInfo propInfo = segment.binding.propInfo;
+				type = (propInfo != null) ? propInfo.getType() : null;
+			} else {
+				type = null;
+			}
+			segments[i] = segment;
+			start = end + 1;
+		}
+	}
+
+	/**
+	 * @return the value at this path from the root object, or null if the path does not exist (or an intermediate
+	 * value is null).
+	 */
+	public Object get(Object root) {
+		Object value = root;
+		for (Segment segment : segments) {
+			if (value == null) {
+				return null;
+			}
+			value = segment.read(mapper, value);
+		}
+		return value;
+	}
+
+	/**
+	 * <p>Set the value at this path from the root object (coerced to the property type for a POJO property).</p>
+	 *
+	 * <p>The null intermediate values are created (HashMap in a Map, or the property type new instance in a POJO).</p>
+	 *
+	 * @return false if the path cannot be set (a segment is not a writable property)
+	 */
+	public boolean set(Object root, Object value) {
+		Object parent = root;
+		int lastIdx = segments.length - 1;
+		for (int i = 0; i < lastIdx; i++) {
+			if (parent == null) {
+				return false;
+			}
+			Segment segment = segments[i];
+			Object child = segment.read(mapper, parent);
+			if (child == null) {
+				child = segment.createChild(mapper, parent);
+			}
+			parent = child;
+		}
+		return parent != null && segments[lastIdx].write(mapper, parent, value);
+	}
+
+	public String getPath() {
+		return path;
+	}
+
+	@Override
+	public String toString() {
+		return path;
+	}
+
+	// --------- Segment --------- //
+	private static final class Segment {
+		private final String name;
+		// last bound class (benign race, the Binding is immutable)
+		private Binding binding = Binding.UNBOUND;
+
+		Segment(String name) {
+			this.name = name;
+		}
+
+		Object read(JomniMapper mapper, Object obj) {
+			Binding b = binding(mapper, obj);
+			if (b.isMap) {
+				return ((Map) obj).get(name);
+			}
+			return (b.propInfo != null) ? b.propInfo.getReader().apply(obj) : null;
+		}
+
+		boolean write(JomniMapper mapper, Object obj, Object value) {
+			Binding b = binding(mapper, obj);
+			if (b.isMap) {
+				((Map) obj).put(name, value);
+				return true;
+			}
+			PropInfo propInfo = b.propInfo;
+			if (propInfo == null || propInfo.getWriter() == null) {
+				return false;
+			}
+			ConvertInfo info = (value != null) ? mapper.getConvertInfo(value.getClass(), propInfo.getType()) : null;
+			propInfo.convertAndWrite(mapper, info, obj, value);
+			return true;
+		}
+
+		/**
+		 * Create, set, and return the value of this segment in obj (null if it cannot be set)
+		 */
+		Object createChild(JomniMapper mapper, Object obj) {
+			Binding b = binding(mapper, obj);
+			Object child;
+			if (b.isMap) {
+				child = new HashMap<>();
+				((Map) obj).put(name, child);
+			} else {
+				PropInfo propInfo = b.propInfo;
+				if (propInfo == null || propInfo.getWriter() == null) {
+					return null;
+				}
+				Class type = propInfo.getType();
+				child = (type.isAssignableFrom(HashMap.class)) ? new HashMap<>() : mapper.getClassInfo(type).newInstance();
+				propInfo.getWriter().accept(obj, child);
+			}
+			return child;
+		}
+
+		private Binding binding(JomniMapper mapper, Object obj) {
+			Binding b = binding;
+			return (b.cls == obj.getClass()) ? b : bind(mapper, obj.getClass());
+		}
+
+		private Binding bind(JomniMapper mapper, Class cls) {
+			Binding b = (Map.class.isAssignableFrom(cls)) ? new Binding(cls, null, true)
+					: new Binding(cls, mapper.getClassInfo(cls).getPropInfo(name), false);
+			binding = b;
+			return b;
+		}
+	}
+
+	private static final class Binding {
+		static final Binding UNBOUND = new Binding(null, null, false);
+
+		final Class cls;
+		final PropInfo propInfo;
+		final boolean isMap;
+
+		Binding(Class cls, PropInfo propInfo, boolean isMap) {
+			this.cls = cls;
+			this.propInfo = propInfo;
+			this.isMap = isMap;
+		}
+	}
+	// --------- /Segment --------- //
+}
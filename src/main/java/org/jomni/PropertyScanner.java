@@ -0,0 +1,205 @@
+/*
+ * Copyright: 2014 Jeremy Chone
+ * License: Apache V2 http://www.apache.org/licenses/LICENSE-2.0
+ */
+
+package org.jomni;
+
+import java.lang.reflect.*;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * <p>Lightweight JavaBeans property scanner (used by ClassInfo in place of the java.beans.Introspector).</p>
+ *
+ * <p>Walks the class public methods once, and recognizes the getX()/isX() getters (is only for boolean), and the
+ * setX(value) setters with the same type, including the chainable ones (any return type). The property names follow
+ * the Introspector decapitalize rule. The property types are resolved for the scanned class (e.g., the I of an
+ * inherited BaseEntity&lt;I&gt;.getId() is Long for a User extends BaseEntity&lt;Long&gt;).</p>
+ *
+ * <p>For the field access mode, scanFields finds the instance fields (any visibility) of the class hierarchy.</p>
+ */
+class PropertyScanner {
+
+	private static final Set<String> excludePropNames = new HashSet<>(Arrays.asList("class"));
+
+	private final Class objectClass;
+
+	// the type variable values of the class hierarchy (e.g., BaseEntity.I -> Long)
+	private final Map<TypeVariable, Type> typeArguments = new HashMap<>();
+
+	PropertyScanner(Class objectClass) {
+		this.objectClass = objectClass;
+		collectTypeArguments(objectClass, new HashSet<>());
+	}
+
+	/**
+	 * @return the readable properties, sorted by name.
+	 */
+	List<PropInfo> scan() {
+		Map<String, Method> getterByName = new TreeMap<>();
+		Map<String, List<Method>> settersByName = new HashMap<>();
+
+		for (Method method : objectClass.getMethods()) {
+			if (Modifier.isStatic(method.getModifiers()) || method.isBridge() || method.isSynthetic()) {
+				continue;
+			}
+			String methodName = method.getName();
+			int paramCount = method.getParameterCount();
+			if (paramCount == 0) {
+				String propName = null;
+				if (methodName.startsWith("get") && methodName.length() > 3 && method.getReturnType() != Void.TYPE) {
+					propName = decapitalize(methodName.substring(3));
+				} else if (methodName.startsWith("is") && methodName.length() > 2 && method.getReturnType() == Boolean.TYPE) {
+					propName = decapitalize(methodName.substring(2));
+				}
+				// Note: like the Introspector, isX wins over getX
+				if (propName != null && !excludePropNames.contains(propName)
+						&& (!getterByName.containsKey(propName) || methodName.startsWith("is"))) {
+					getterByName.put(propName, method);
+				}
+			} else if (paramCount == 1 && methodName.startsWith("set") && methodName.length() > 3) {
+				settersByName.computeIfAbsent(decapitalize(methodName.substring(3)), k -> new ArrayList<>(1)).add(method);
+			}
+		}
+
+		List<PropInfo> propInfos = new ArrayList<>(getterByName.size());
+		for (Map.Entry<String, Method> entry : getterByName.entrySet()) {
+			String propName = entry.getKey();
+			Method readMethod = entry.getValue();
+			Type propType = resolve(readMethod.getGenericReturnType());
+			Class propClass = rawClass(propType);
+
+			Method writeMethod = null;
+			List<Method> setters = settersByName.get(propName);
+			if (setters != null) {
+				for (Method setter : setters) {
+					if (rawClass(resolve(setter.getGenericParameterTypes()[0])) == propClass) {
+						writeMethod = setter;
+						break;
+					}
+				}
+			}
+			propInfos.add(new PropInfo(propName, propClass, genericType(propType), writeMethod, readMethod));
+		}
+		return propInfos;
+	}
+
+	/**
+	 * <p>Scan for the field access mode: the non static, non transient fields of the class and its super classes (a
+	 * field hides the super class ones with the same name), plus the getter properties without a field (e.g., a
+	 * computed getX()).</p>
+	 *
+	 * @return the properties, sorted by name.
+	 */
+	List<PropInfo> scanFields() {
+		Map<String, PropInfo> propInfoByName = new TreeMap<>();
+		for (Class cls = objectClass; cls != null && cls != Object.class; cls = cls.getSuperclass()) {
+			for (Field field : cls.getDeclaredFields()) {
+				int modifiers = field.getModifiers();
+				if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic()
+						|| propInfoByName.containsKey(field.getName())) {
+					continue;
+				}
+				Function<Object, Object> reader = Accessors.fieldReader(field);
+				if (reader != null) {
+					Type fieldType = resolve(field.getGenericType());
+					propInfoByName.put(field.getName(), new PropInfo(field, rawClass(fieldType), genericType(fieldType), reader));
+				}
+			}
+		}
+		for (PropInfo propInfo : scan()) {
+			propInfoByName.putIfAbsent(propInfo.getName(), propInfo);
+		}
+		return new ArrayList<>(propInfoByName.values());
+	}
+
+	// --------- Type Resolution --------- //
+	private void collectTypeArguments(Type type, Set<Class> visited) {
+		Class cls = rawClass(type);
+		if (cls == null || !visited.add(cls)) {
+			return;
+		}
+		if (type instanceof ParameterizedType) {
+			Type[] args = ((ParameterizedType) type).getActualTypeArguments();
+			TypeVariable[] vars = cls.getTypeParameters();
+			for (int i = 0; i < vars.length && i < args.length; i++) {
+				typeArguments.put(vars[i], args[i]);
+			}
+		}
+		collectTypeArguments(cls.getGenericSuperclass(), visited);
+		for (Type itf : cls.getGenericInterfaces()) {
+			collectTypeArguments(itf, visited);
+		}
+	}
+
+	/**
+	 * @return the type with its type variables resolved (as far as the class hierarchy tells)
+	 */
+	private Type resolve(Type type) {
+		// Note: bounded, in case of a (malformed) type variable loop
+		for (int i = 0; i < 16 && type instanceof TypeVariable; i++) {
+			Type value = typeArguments.get(type);
+			if (value == null) {
+				Type[] bounds = ((TypeVariable) type).getBounds();
+				return (bounds.length > 0) ? resolve(bounds[0]) : Object.class;
+			}
+			type = value;
+		}
+		if (type instanceof WildcardType) {
+			Type[] upperBounds = ((WildcardType) type).getUpperBounds();
+			return (upperBounds.length > 0) ? resolve(upperBounds[0]) : Object.class;
+		}
+		if (type instanceof GenericArrayType) {
+			Class componentClass = rawClass(resolve(((GenericArrayType) type).getGenericComponentType()));
+			return Array.newInstance((componentClass != null) ? componentClass : Object.class, 0).getClass();
+		}
+		return type;
+	}
+
+	private static Class rawClass(Type type) {
+		if (type instanceof Class) {
+			return (Class) type;
+		}
+		if (type instanceof ParameterizedType) {
+			return (Class) ((ParameterizedType) type).getRawType();
+		}
+		if (type instanceof TypeVariable || type instanceof WildcardType) {
+			return Object.class;
+		}
+		if (type instanceof GenericArrayType) {
+			return Object[].class;
+		}
+		return null;
+	}
+
+	/**
+	 * @return the last type argument which resolves to a class (e.g., User for List&lt;User&gt;, and for
+	 * Map&lt;String,User&gt;), or null
+	 */
+	private Class genericType(Type type) {
+		Class genericType = null;
+		if (type instanceof ParameterizedType) {
+			for (Type typeArgument : ((ParameterizedType) type).getActualTypeArguments()) {
+				Type resolved = resolve(typeArgument);
+				if (resolved instanceof Class) {
+					genericType = (Class) resolved;
+				}
+			}
+		}
+		return genericType;
+	}
+	// --------- /Type Resolution --------- //
+
+	/**
+	 * Same as java.beans.Introspector.decapitalize ("FooBar" is "fooBar", but "URL" stays "URL")
+	 */
+	static String decapitalize(String name) {
+		if (name.length() > 1 && Character.isUpperCase(name.charAt(1)) && Character.isUpperCase(name.charAt(0))) {
+			return name;
+		}
+		char[] chars = name.toCharArray();
+		chars[0] = Character.toLowerCase(chars[0]);
+		return new String(chars);
+	}
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright: 2014 Jeremy Chone
+ * License: Apache V2 http://www.apache.org/licenses/LICENSE-2.0
+ */
+
+package org.jomni;
+
+import org.jomni.util.Maps;
+
+import java.util.Arrays;
+import java.util.function.Function;
+
+/**
+ * <p>Map positional rows (Object[] values, e.g., from JDBC or CSV readers) into targetClass objects.</p>
+ *
+ * <p>The header names are compiled once against the target ClassInfo (column index to property, with its converter
+ * bound on first use), so mapping a row does not create any Map nor do any name lookup. Columns without a matching
+ * writable property are ignored.</p>
+ *
+ * <pre>
+ * RowMapper&lt;User&gt; rowMapper = mapper.rowMapper(User.class, "id", "username", "since");
+ * User user = rowMapper.map(new Object[]{12L, "johnd", "1997"});
+ * // or, as a Function: rows.stream().map(rowMapper)
+ * </pre>
+ *
+ * <p>Immutable (and threadsafe), get it with JomniMapper.rowMapper.</p>
+ */
+public class RowMapper<R> implements Function<Object[], R> {
+
+	private final JomniMapper mapper;
+	private final String[] names;
+	private final ClassInfo targetInfo;
+
+	// the property mapping for each column (null if the column does not match a writable property)
+	private final PropMapping[] columnMappings;
+
+	// for a creator targetClass, the creator argument mappings and their column index (-1 if not in the row)
+	private final PropMapping[] creatorMappings;
+	private final int[] creatorColumns;
+
+	RowMapper(JomniMapper mapper, Class<R> targetClass, String[] names) {
+		this.mapper = mapper;
+		this.names = names.clone();
+		this.targetInfo = mapper.getClassInfo(targetClass);
+
+		columnMappings = new PropMapping[names.length];
+		for (int i = 0; i < names.length; i++) {
+			PropInfo propInfo = targetInfo.getPropInfo(names[i]);
+			if (propInfo != null && propInfo.getWriter() != null) {
+				columnMappings[i] = new PropMapping(mapper, names[i], null, propInfo, propInfo.getType());
+			}
+		}
+
+		if (targetInfo.hasCreator()) {
+			String[] creatorNames = targetInfo.getCreatorPropNames();
+			Class[] paramTypes = targetInfo.getCreatorParamTypes();
+			creatorMappings = new PropMapping[creatorNames.length];
+			creatorColumns = new int[creatorNames.length];
+			for (int k = 0; k < creatorNames.length; k++) {
+				creatorMappings[k] = new PropMapping(mapper, creatorNames[k], null, null, paramTypes[k]);
+				creatorColumns[k] = Arrays.asList(names).indexOf(creatorNames[k]);
+			}
+		} else {
+			creatorMappings = null;
+			creatorColumns = null;
+		}
+	}
+
+	/**
+	 * Map a row of values (in the order of the header names) into a new targetClass object.
+	 */
+	public R map(Object[] values) {
+		if (values.length != columnMappings.length) {
+			throw new IllegalArgumentException("Row has " + values.length + " values but the header has " + columnMappings.length + " names");
+		}
+		Object target;
+		if (creatorMappings == null) {
+			target = targetInfo.newInstance();
+		} else {
+			Object[] args = new Object[creatorMappings.length];
+			for (int k = 0; k < args.length; k++) {
+				int column = creatorColumns[k];
+				args[k] = creatorMappings[k].convertArg((column != -1) ? values[column] : null);
+			}
+			target = targetInfo.create(args);
+		}
+
+		MapperListener listener = mapper.sampledListener();
+		for (int i = 0; i < columnMappings.length; i++) {
+			PropMapping pm = columnMappings[i];
+			if (pm != null) {
+				// Note: as for the creator arguments, a null value is the default value for a primitive property
+				Object value = values[i];
+				pm.write(target, (value != null) ? value : Accessors.defaultValue(pm.targetType), listener);
+			}
+		}
+		return (R) target;
+	}
+
+	/**
+	 * Map the NamesValues values (its names must be the ones of this RowMapper, in the same order).
+	 */
+	public R map(Maps.NamesValues namesValues) {
+		if (!Arrays.equals(names, namesValues.names)) {
+			throw new IllegalArgumentException("NamesValues names " + Arrays.toString(namesValues.names) + " do not match the RowMapper names " + Arrays.toString(names));
+		}
+		return map(namesValues.values);
+	}
+
+	@Override
+	public R apply(Object[] values) {
+		return map(values);
+	}
+
+	/**
+	 * @return a copy of the header names of this RowMapper.
+	 */
+	public String[] getNames() {
+		return names.clone();
+	}
+}
@@ -0,0 +1,21 @@
+/*
+ * Copyright: 2014 Jeremy Chone
+ * License: Apache V2 http://www.apache.org/licenses/LICENSE-2.0
+ */
+
+package org.jomni;
+
+/**
+ * TypeConverter specialized for the double primitive, used to set primitive double properties without boxing.
+ */
+@FunctionalInterface
+public interface ToDoubleConverter<T> extends TypeConverter<T, Double> {
+
+	double convertToDouble(T instance);
+
+	@Override
+	default Double convert(T instance) {
+		return convertToDouble(instance);
+	}
+
+}
@@ -0,0 +1,21 @@
+/*
+ * Copyright: 2014 Jeremy Chone
+ * License: Apache V2 http://www.apache.org/licenses/LICENSE-2.0
+ */
+
+package org.jomni;
+
+/**
+ * TypeConverter specialized for the int primitive, used to set primitive int properties without boxing.
+ */
+@FunctionalInterface
+public interface ToIntConverter<T> extends TypeConverter<T, Integer> {
+
+	int convertToInt(T instance);
+
+	@Override
+	default Integer convert(T instance) {
+		return convertToInt(instance);
+	}
+
+}
@@ -0,0 +1,21 @@
+/*
+ * Copyright: 2014 Jeremy Chone
+ * License: Apache V2 http://www.apache.org/licenses/LICENSE-2.0
+ */
+
+package org.jomni;
+
+/**
+ * TypeConverter specialized for the long primitive, used to set primitive long properties without boxing.
+ */
+@FunctionalInterface
+public interface ToLongConverter<T> extends TypeConverter<T, Long> {
+
+	long convertToLong(T instance);
+
+	@Override
+	default Long convert(T instance) {
+		return convertToLong(instance);
+	}
+
+}
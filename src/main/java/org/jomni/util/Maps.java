@@ -80,7 +80,8 @@ public class Maps {
 	static final public Map<String, Object> asNestedMap(Map<? extends Object, ? extends Object> flattenMap){
 		Map<String, Object> nestedPropMap = new HashMap<>();
 
-		Map<String, Map<String,Object>> mapByPath = new HashMap<>();
+		// the trie of the maps created by this call (indexed by path segment)
+		PathNode root = new PathNode(null, 0, nestedPropMap);
 
 		for (Map.Entry entry : flattenMap.entrySet()){
 			Object keyObj = entry.getKey();
@@ -88,47 +89,200 @@ public class Maps {
 
 			Object val = entry.getValue();
 
-			Object propVal = val;
-			Map<String, Object> childPropMap = null;
-
-			if (key.indexOf('.') != -1) {
-				String[] names = key.split("\\.");
-				int lastIdx = names.length - 1;
-				for (int i = lastIdx; i >= 0; i--) {
-					String propName = names[i];
+			int dotIdx = key.indexOf('.');
+			if (dotIdx != -1) {
+				// walk (or create) the path nodes by character index, without splitting the key
+				PathNode node = root;
+				int start = 0;
+				while (dotIdx != -1) {
+					node = node.child(key, start, dotIdx);
+					start = dotIdx + 1;
+					dotIdx = key.indexOf('.', start);
+				}
+				node.map.put(key.substring(start), val);
+			}else{
+				nestedPropMap.put(key,val);
+			}
+		}
 
-					// the mapByPath key (TODO: need to optimize this)
-					String mapByPathKey = String.join(".",Arrays.copyOfRange(names, 0, i));
+		return nestedPropMap;
+	}
 
-					// if i == 0, then, we take the base propMap
-					Map<String, Object> propMap = (i == 0)?nestedPropMap:mapByPath.get(mapByPathKey);
+	/**
+	 * <p>Compile the flatten keys (e.g., the key set of a form or config schema) to a PathSchema, which can then nest
+	 * any flattenMap with these keys in one pass, without any intermediate string.</p>
+	 *
+	 * @param keys the flatten keys, following the "." notation scheme (key.toString() for non string keys)
+	 */
+	static final public PathSchema pathSchemaOf(Collection<? extends Object> keys){
+		return new PathSchema(keys);
+	}
 
-					boolean newPropMap = false;
-					// create the propMap if needed
-					if (propMap == null) {
-						propMap = new HashMap<>();
-						mapByPath.put(mapByPathKey, propMap);
-						newPropMap = true;
+	/**
+	 * <p>Compiled flatten keys (see pathSchemaOf), to nest the flattenMaps sharing the same key set.</p>
+	 *
+	 * <p>Immutable and threadsafe.</p>
+	 */
+	public static class PathSchema {
+		// the path nodes, 0 being the root (the nested map itself)
+		private final String[] nodeNames;
+		private final int[] nodeParents;
+		private final int[] nodeSizes;
+
+		private final Map<String, CompiledKey> compiledKeyByKey = new HashMap<>();
+
+		private PathSchema(Collection<? extends Object> keys){
+			List<String> names = new ArrayList<>();
+			List<Integer> parents = new ArrayList<>();
+			List<Integer> sizes = new ArrayList<>();
+			Map<String, Integer> nodeIdByPath = new HashMap<>();
+			names.add(null);
+			parents.add(-1);
+			sizes.add(0);
+
+			for (Object keyObj : keys){
+				String key = (keyObj instanceof String)?(String)keyObj:keyObj.toString();
+				int nodeId = 0;
+				int start = 0;
+				int dotIdx = key.indexOf('.');
+				while (dotIdx != -1) {
+					String path = key.substring(0, dotIdx);
+					Integer childId = nodeIdByPath.get(path);
+					if (childId == null) {
+						childId = names.size();
+						names.add(key.substring(start, dotIdx));
+						parents.add(nodeId);
+						sizes.add(0);
+						sizes.set(nodeId, sizes.get(nodeId) + 1);
+						nodeIdByPath.put(path, childId);
 					}
+					nodeId = childId;
+					start = dotIdx + 1;
+					dotIdx = key.indexOf('.', start);
+				}
+				if (!compiledKeyByKey.containsKey(key)) {
+					sizes.set(nodeId, sizes.get(nodeId) + 1);
+					compiledKeyByKey.put(key, new CompiledKey(nodeId, key.substring(start)));
+				}
+			}
 
-					// put the value
-					propMap.put(propName, propVal);
+			nodeNames = names.toArray(new String[names.size()]);
+			nodeParents = new int[parents.size()];
+			nodeSizes = new int[sizes.size()];
+			for (int i = 0; i < nodeParents.length; i++) {
+				nodeParents[i] = parents.get(i);
+				nodeSizes[i] = sizes.get(i);
+			}
+		}
 
-					// determine if we need set childPropMap for next iteration
-					if (newPropMap){
-						propVal = propMap;
-					}else{
-						break;
-					}
+		/**
+		 * Same as Maps.asNestedMap(flattenMap), but with the compiled paths. If the flattenMap has a key which is not in
+		 * this schema, it falls back to Maps.asNestedMap.
+		 */
+		public Map<String, Object> asNestedMap(Map<? extends Object, ? extends Object> flattenMap){
+			Map<String, Object>[] maps = new Map[nodeNames.length];
+			maps[0] = new HashMap<>(capacity(nodeSizes[0]));
+
+			for (Map.Entry entry : flattenMap.entrySet()){
+				Object keyObj = entry.getKey();
+				CompiledKey compiledKey = compiledKeyByKey.get((keyObj instanceof String)?(String)keyObj:keyObj.toString());
+				if (compiledKey == null) {
+					return Maps.asNestedMap(flattenMap);
 				}
+				nodeMap(maps, compiledKey.nodeId).put(compiledKey.name, entry.getValue());
+			}
+			return maps[0];
+		}
 
+		private Map<String, Object> nodeMap(Map<String, Object>[] maps, int nodeId){
+			Map<String, Object> map = maps[nodeId];
+			if (map == null) {
+				map = new HashMap<>(capacity(nodeSizes[nodeId]));
+				maps[nodeId] = map;
+				nodeMap(maps, nodeParents[nodeId]).put(nodeNames[nodeId], map);
+			}
+			return map;
+		}
 
-			}else{
-				nestedPropMap.put(key,val);
+		private static int capacity(int size){
+			return (int) (size / 0.75f) + 1;
+		}
+
+		private static class CompiledKey {
+			final int nodeId;
+			final String name;
+
+			CompiledKey(int nodeId, String name) {
+				this.nodeId = nodeId;
+				this.name = name;
 			}
 		}
+	}
 
-		return nestedPropMap;
+	/**
+	 * Node of the asNestedMap path trie. The children are in a small open addressing table keyed by the segment hash
+	 * (same as String.hashCode), so they can be looked up directly from the key region, without substring.
+	 */
+	private static class PathNode {
+		final String name;
+		final int hash;
+		final Map<String, Object> map;
+
+		private PathNode[] table;
+		private int childCount;
+
+		PathNode(String name, int hash, Map<String, Object> map) {
+			this.name = name;
+			this.hash = hash;
+			this.map = map;
+		}
+
+		/**
+		 * @return the child node for the key segment [start,end) (created, and put in this map, if needed)
+		 */
+		PathNode child(String key, int start, int end) {
+			int len = end - start;
+			int h = 0;
+			for (int i = start; i < end; i++) {
+				h = 31 * h + key.charAt(i);
+			}
+			if (table == null) {
+				table = new PathNode[8];
+			}
+			int mask = table.length - 1;
+			int idx = (h ^ (h >>> 16)) & mask;
+			PathNode child;
+			while ((child = table[idx]) != null) {
+				if (child.hash == h && child.name.length() == len && key.regionMatches(start, child.name, 0, len)) {
+					return child;
+				}
+				idx = (idx + 1) & mask;
+			}
+
+			String childName = key.substring(start, end);
+			child = new PathNode(childName, h, new HashMap<>());
+			map.put(childName, child.map);
+			table[idx] = child;
+			if (++childCount * 2 > table.length) {
+				resize();
+			}
+			return child;
+		}
+
+		private void resize() {
+			PathNode[] oldTable = table;
+			table = new PathNode[oldTable.length * 2];
+			int mask = table.length - 1;
+			for (PathNode node : oldTable) {
+				if (node != null) {
+					int idx = (node.hash ^ (node.hash >>> 16)) & mask;
+					while (table[idx] != null) {
+						idx = (idx + 1) & mask;
+					}
+					table[idx] = node;
+				}
+			}
+		}
 	}
 
 	/**
@@ -181,32 +335,184 @@ public class Maps {
 		return flattenPropMap;
 	}
 
-	static final public Object nestedValue(Map map, String path){
-		Object val = null;
+	/**
+	 * <p>Return a read-only flatten view of the nestedMap following the "." notation scheme (same entries as
+	 * asFlatMap(nestedMap), but nothing is copied).</p>
+	 *
+	 * <p>get("company.name") walks the nested maps on demand, and the iteration streams the flatten entries lazily
+	 * (size() walks the whole nestedMap). The view is live, so it reflects the changes of the nestedMap. Note that the
+	 * lookups assume String keys in the nested maps.</p>
+	 *
+	 * @param nestedMap
+	 * @return
+	 */
+	static final public Map<String,Object> flatView(Map<? extends Object,? extends Object> nestedMap){
+		return new FlatView(nestedMap);
+	}
+
+	private static class FlatView extends AbstractMap<String, Object> {
+		private final Map<?, ?> nestedMap;
+
+		FlatView(Map<?, ?> nestedMap) {
+			this.nestedMap = nestedMap;
+		}
+
+		@Override
+		public Object get(Object key) {
+			if (!(key instanceof String)) {
+				return null;
+			}
+			Map<?, ?> parent = parentMap((String) key);
+			Object value = (parent != null) ? parent.get(lastName((String) key)) : null;
+			return (value instanceof Map) ? null : value;
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			if (!(key instanceof String)) {
+				return false;
+			}
+			Map<?, ?> parent = parentMap((String) key);
+			String name = lastName((String) key);
+			return parent != null && parent.containsKey(name) && !(parent.get(name) instanceof Map);
+		}
+
+		@Override
+		public int size() {
+			int size = 0;
+			Deque<Map<?, ?>> maps = new ArrayDeque<>();
+			maps.push(nestedMap);
+			while (!maps.isEmpty()) {
+				for (Object value : maps.pop().values()) {
+					if (value instanceof Map) {
+						maps.push((Map<?, ?>) value);
+					} else {
+						size++;
+					}
+				}
+			}
+			return size;
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return !entrySet().iterator().hasNext();
+		}
+
+		@Override
+		public Set<Entry<String, Object>> entrySet() {
+			return new AbstractSet<Entry<String, Object>>() {
+				@Override
+				public Iterator<Entry<String, Object>> iterator() {
+					return new FlatIterator(nestedMap);
+				}
+
+				@Override
+				public int size() {
+					return FlatView.this.size();
+				}
+			};
+		}
+
+		/**
+		 * @return the map holding the last name of the path (null if the path does not go through maps)
+		 */
+		private Map<?, ?> parentMap(String path) {
+			Map<?, ?> m = nestedMap;
+			int start = 0;
+			int dotIdx = path.indexOf('.');
+			while (dotIdx != -1) {
+				Object v = m.get(path.substring(start, dotIdx));
+				if (!(v instanceof Map)) {
+					return null;
+				}
+				m = (Map<?, ?>) v;
+				start = dotIdx + 1;
+				dotIdx = path.indexOf('.', start);
+			}
+			return m;
+		}
+
+		private static String lastName(String path) {
+			int lastDotIdx = path.lastIndexOf('.');
+			return (lastDotIdx == -1) ? path : path.substring(lastDotIdx + 1);
+		}
+	}
+
+	/**
+	 * Depth first iterator of the flatten entries (the key strings are built only for the returned entries).
+	 */
+	private static class FlatIterator implements Iterator<Map.Entry<String, Object>> {
+		private final Deque<Iterator<? extends Map.Entry<?, ?>>> iterators = new ArrayDeque<>();
+		private final Deque<String> basePaths = new ArrayDeque<>();
+		private Map.Entry<String, Object> next;
+
+		FlatIterator(Map<?, ?> nestedMap) {
+			iterators.push(nestedMap.entrySet().iterator());
+			basePaths.push("");
+			advance();
+		}
+
+		private void advance() {
+			next = null;
+			while (!iterators.isEmpty()) {
+				Iterator<? extends Map.Entry<?, ?>> it = iterators.peek();
+				if (!it.hasNext()) {
+					iterators.pop();
+					basePaths.pop();
+					continue;
+				}
+				Map.Entry<?, ?> entry = it.next();
+				Object keyObj = entry.getKey();
+				String key = (keyObj instanceof String) ? (String) keyObj : keyObj.toString();
+				String basePath = basePaths.peek();
+				String propName = (basePath.isEmpty()) ? key : basePath + key;
+				Object value = entry.getValue();
+				if (value instanceof Map) {
+					iterators.push(((Map<?, ?>) value).entrySet().iterator());
+					basePaths.push(propName + ".");
+				} else {
+					next = new AbstractMap.SimpleImmutableEntry<>(propName, value);
+					return;
+				}
+			}
+		}
 
-		String[] names = path.split("\\.");
+		@Override
+		public boolean hasNext() {
+			return next != null;
+		}
+
+		@Override
+		public Map.Entry<String, Object> next() {
+			if (next == null) {
+				throw new NoSuchElementException();
+			}
+			Map.Entry<String, Object> entry = next;
+			advance();
+			return entry;
+		}
+	}
+
+	static final public Object nestedValue(Map map, String path){
 		Map m = map;
-		int lastIdx = names.length - 1;
-		for (int i = 0; i < names.length; i++) {
-			String name = names[i];
+		int start = 0;
+		int dotIdx;
+		// Note: walk the path with indexOf (no regex split, no String[] allocation)
+		while ((dotIdx = path.indexOf('.', start)) >= 0){
 			// assume the map have string Keys
-			Object v = m.get(name);
-			if (i == lastIdx){
-				// if it is the last index, then, just return the value.
-				val = v;
-				break;
+			Object v = m.get(path.substring(start, dotIdx));
+			if (v instanceof Map){
+				// if it not the last name, and it is v is a Map, then, we continue
+				m = (Map)v;
 			}else{
-
-				if (v instanceof Map){
-					// if it not the last index, and it is v is a Map, then, we continue
-					m = (Map)v;
-				}else{
-					// otherwise, we break (Omni object will add support for typed object, but here, just support plain map)
-					break;
-				}
+				// otherwise, we break (Omni and PropertyPath support typed object, but here, just support plain map)
+				return null;
 			}
+			start = dotIdx + 1;
 		}
-		return val;
+		// the last name, just return the value.
+		return m.get((start == 0) ? path : path.substring(start));
 	}
 
 	// --------- /Nested Maps --------- //
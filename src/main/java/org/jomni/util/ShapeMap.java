@@ -0,0 +1,321 @@
+/*
+ * Copyright: 2014 Jeremy Chone
+ * License: Apache V2 http://www.apache.org/licenses/LICENSE-2.0
+ */
+
+package org.jomni.util;
+
+import java.util.*;
+
+/**
+ * <p>Compact String keyed Map that only stores an Object[] of values. The keys, and the key to index table, are held by
+ * a Shape, which is shared by all the maps with the same key set (e.g., all the maps created from the same POJO
+ * class, see JomniBuilder.setCompactMaps).</p>
+ *
+ * <p>The map is fully mutable. Updating or removing a shape key stays compact, but putting a new key transparently
+ * upgrades the map to a regular HashMap (which is then used for all the subsequent operations).</p>
+ *
+ * <p>Note: Like HashMap, this map is not thread safe.</p>
+ */
+public final class ShapeMap extends AbstractMap<String, Object> {
+
+	// marker of a removed (or not yet set) shape key
+	private static final Object ABSENT = new Object();
+
+	private static final Shape EMPTY_SHAPE = new Shape();
+
+	private final Shape shape;
+	private Object[] values;
+	private int size;
+
+	// non null once upgraded (then, shape and values are not used anymore)
+	private Map<String, Object> delegate;
+
+	/**
+	 * Empty map (will be upgraded on the first put).
+	 */
+	public ShapeMap() {
+		this(EMPTY_SHAPE, new Object[0]);
+	}
+
+	/**
+	 * Compact map with the values of the shape keys (in the shape key order). The values array is owned by the map
+	 * (i.e., not copied).
+	 */
+	public ShapeMap(Shape shape, Object[] values) {
+		if (values.length != shape.keys.length) {
+			throw new IllegalArgumentException("Expected " + shape.keys.length + " values, but got " + values.length);
+		}
+		this.shape = shape;
+		this.values = values;
+		this.size = values.length;
+	}
+
+	/**
+	 * @return true if this map still uses its shape (i.e., no new key has been added)
+	 */
+	public boolean isCompact() {
+		return delegate == null;
+	}
+
+	// --------- Map --------- //
+	@Override
+	public int size() {
+		return (delegate != null) ? delegate.size() : size;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		if (delegate != null) {
+			return delegate.containsKey(key);
+		}
+		int idx = shape.indexOf(key);
+		return idx >= 0 && values[idx] != ABSENT;
+	}
+
+	@Override
+	public Object get(Object key) {
+		if (delegate != null) {
+			return delegate.get(key);
+		}
+		int idx = shape.indexOf(key);
+		if (idx < 0) {
+			return null;
+		}
+		Object value = values[idx];
+		return (value != ABSENT) ? value : null;
+	}
+
+	@Override
+	public Object put(String key, Object value) {
+		if (delegate == null) {
+			int idx = shape.indexOf(key);
+			if (idx >= 0) {
+				return setAt(idx, value);
+			}
+			upgrade();
+		}
+		return delegate.put(key, value);
+	}
+
+	@Override
+	public Object remove(Object key) {
+		if (delegate != null) {
+			return delegate.remove(key);
+		}
+		int idx = shape.indexOf(key);
+		return (idx >= 0) ? removeAt(idx) : null;
+	}
+
+	@Override
+	public void clear() {
+		if (delegate != null) {
+			delegate.clear();
+		} else {
+			Arrays.fill(values, ABSENT);
+			size = 0;
+		}
+	}
+
+	@Override
+	public Set<Entry<String, Object>> entrySet() {
+		return new AbstractSet<Entry<String, Object>>() {
+			@Override
+			public Iterator<Entry<String, Object>> iterator() {
+				return (delegate != null) ? delegate.entrySet().iterator() : new CompactIterator();
+			}
+
+			@Override
+			public int size() {
+				return ShapeMap.this.size();
+			}
+		};
+	}
+	// --------- /Map --------- //
+
+	// --------- Compact Helpers --------- //
+	private Object setAt(int idx, Object value) {
+		Object old = values[idx];
+		values[idx] = value;
+		if (old == ABSENT) {
+			size++;
+			return null;
+		}
+		return old;
+	}
+
+	private Object removeAt(int idx) {
+		Object old = values[idx];
+		if (old == ABSENT) {
+			return null;
+		}
+		values[idx] = ABSENT;
+		size--;
+		return old;
+	}
+
+	private void upgrade() {
+		// Note: 4/3 + 1 to avoid a resize for the next few puts
+		Map<String, Object> map = new HashMap<>((size + 1) * 4 / 3 + 1);
+		String[] keys = shape.keys;
+		for (int i = 0; i < keys.length; i++) {
+			if (values[i] != ABSENT) {
+				map.put(keys[i], values[i]);
+			}
+		}
+		delegate = map;
+		values = null;
+	}
+
+	/**
+	 * The compact iterators and entries are invalid once the map got upgraded (a new key put while iterating).
+	 */
+	private void checkCompact() {
+		if (delegate != null) {
+			throw new ConcurrentModificationException();
+		}
+	}
+
+	private class CompactIterator implements Iterator<Entry<String, Object>> {
+		private int next = advance(0);
+		private int last = -1;
+
+		private int advance(int from) {
+			while (from < values.length && values[from] == ABSENT) {
+				from++;
+			}
+			return from;
+		}
+
+		// Note: true once upgraded, so that the next call fails with ConcurrentModificationException
+		@Override
+		public boolean hasNext() {
+			return delegate != null || next < values.length;
+		}
+
+		@Override
+		public Entry<String, Object> next() {
+			checkCompact();
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			last = next;
+			next = advance(next + 1);
+			return new CompactEntry(last);
+		}
+
+		@Override
+		public void remove() {
+			if (last < 0) {
+				throw new IllegalStateException();
+			}
+			checkCompact();
+			removeAt(last);
+			last = -1;
+		}
+	}
+
+	private class CompactEntry implements Entry<String, Object> {
+		private final int idx;
+
+		CompactEntry(int idx) {
+			this.idx = idx;
+		}
+
+		@Override
+		public String getKey() {
+			return shape.keys[idx];
+		}
+
+		@Override
+		public Object getValue() {
+			checkCompact();
+			return values[idx];
+		}
+
+		@Override
+		public Object setValue(Object value) {
+			checkCompact();
+			return setAt(idx, value);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof Entry)) {
+				return false;
+			}
+			Entry e = (Entry) o;
+			return getKey().equals(e.getKey()) && Objects.equals(getValue(), e.getValue());
+		}
+
+		@Override
+		public int hashCode() {
+			return getKey().hashCode() ^ Objects.hashCode(getValue());
+		}
+
+		@Override
+		public String toString() {
+			return getKey() + "=" + getValue();
+		}
+	}
+	// --------- /Compact Helpers --------- //
+
+	/**
+	 * <p>Immutable key set (in order) with a precomputed key to index table (open addressing, power of two size).
+	 * Meant to be created once and shared by all the maps of the same key set.</p>
+	 */
+	public static final class Shape {
+		private final String[] keys;
+		// index + 1 by key slot (0 for empty slot)
+		private final int[] table;
+		private final int mask;
+
+		public Shape(String... keys) {
+			this.keys = keys.clone();
+			int capacity = Integer.highestOneBit(Math.max(2, keys.length * 2) - 1) << 1;
+			table = new int[capacity];
+			mask = capacity - 1;
+			for (int i = 0; i < this.keys.length; i++) {
+				String key = this.keys[i];
+				if (indexOf(key) >= 0) {
+					throw new IllegalArgumentException("Duplicate key " + key);
+				}
+				int slot = key.hashCode() & mask;
+				while (table[slot] != 0) {
+					slot = (slot + 1) & mask;
+				}
+				table[slot] = i + 1;
+			}
+		}
+
+		/**
+		 * @return the index of this key, or -1 if not part of this shape
+		 */
+		public int indexOf(Object key) {
+			if (!(key instanceof String)) {
+				return -1;
+			}
+			int slot = key.hashCode() & mask;
+			int entry;
+			while ((entry = table[slot]) != 0) {
+				String k = keys[entry - 1];
+				if (k == key || k.equals(key)) {
+					return entry - 1;
+				}
+				slot = (slot + 1) & mask;
+			}
+			return -1;
+		}
+
+		public int size() {
+			return keys.length;
+		}
+
+		/**
+		 * @return the key at this index
+		 */
+		public String getKey(int idx) {
+			return keys[idx];
+		}
+	}
+}
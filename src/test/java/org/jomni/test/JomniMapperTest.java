@@ -1,19 +1,52 @@
 package org.jomni.test;
 
+import org.jomni.ClassAccessor;
+import org.jomni.ClassInfo;
+import org.jomni.ClassInfoCache;
+import org.jomni.ExtraConverters;
 import org.jomni.JomniBuilder;
 import org.jomni.JomniMapper;
+import org.jomni.JomniMetrics;
+import org.jomni.MapperException;
+import org.jomni.MapperListener;
+import org.jomni.PrewarmReport;
+import org.jomni.RowMapper;
+import org.jomni.util.Maps.NamesValues;
+import org.jomni.util.ShapeMap;
 import static org.jomni.util.Maps.mapOf;
+import static org.jomni.util.Maps.namesValuesOf;
 
+import org.jomni.test.app.Company;
+import org.jomni.test.app.Message;
+import org.jomni.test.app.Price;
+import org.jomni.test.app.Product;
+import org.jomni.test.app.Team;
 import org.jomni.test.app.Tests;
 import org.jomni.test.app.User;
 import org.junit.Test;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Optional;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.WeakReference;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
+import java.util.stream.Stream;
 
-import static org.junit.Assert.assertEquals;
+import static java.util.stream.Collectors.toList;
+
+import static org.junit.Assert.*;
 
 public class JomniMapperTest {
 
@@ -54,5 +87,588 @@ public class JomniMapperTest {
 
 	}
 
+	@Test
+	public void testMapperWideningConverters(){
+		JomniMapper j = new JomniBuilder().build();
+
+		// Integer -> Long goes through the Number -> Long converter
+		assertEquals(Long.valueOf(12L),j.as(Long.class,12));
+		assertEquals(Long.valueOf(13L),j.as(Long.class,13));
+
+		// java.sql.Timestamp -> LocalDateTime goes through the java.util.Date -> LocalDateTime converter
+		LocalDateTime ldt = LocalDateTime.of(2014, 12, 29, 15, 29, 46);
+		assertEquals(ldt, j.as(LocalDateTime.class, Timestamp.valueOf(ldt)));
+	}
+
+	@Test
+	public void testMapperMostSpecificConverter(){
+		JomniBuilder builder = new JomniBuilder();
+		builder.addTypeConverter(Integer.class, Long.class, i -> -1L);
+		JomniMapper j = builder.build();
+
+		// the Integer -> Long converter is more specific than the Number -> Long one
+		assertEquals(Long.valueOf(-1L), j.as(Long.class, 12));
+		assertEquals(Long.valueOf(-1L), j.as(Long.class, 12));
+		// other Numbers still go through Number -> Long
+		assertEquals(Long.valueOf(12L), j.as(Long.class, (short) 12));
+	}
+
+	@Test
+	public void testMapperNoResolver(){
+		JomniMapper j = new JomniBuilder().build();
+
+		// interface without implementation class
+		try {
+			j.as(Comparable.class, Tests.makeUser());
+			fail("should have thrown a MapperException");
+		} catch (MapperException e) {
+			assertTrue(e.isError(MapperException.Error.CANNOT_FIND_RESOLVER));
+		}
+
+		// but a value already implementing the interface is used as is
+		assertEquals("x", j.as(CharSequence.class, "x"));
+		assertEquals("x", j.as(Comparable.class, "x"));
+		Set<String> names = new TreeSet<>(Arrays.asList("a", "b"));
+		assertSame(names, j.as(Collection.class, names));
+
+		// Map and List targets are copied into their implementation class unless already of it
+		TreeMap<String, Object> treeMap = new TreeMap<>(mapOf("a", 1));
+		Map mapCopy = j.as(Map.class, treeMap);
+		assertEquals(HashMap.class, mapCopy.getClass());
+		assertEquals(treeMap, mapCopy);
+		LinkedList<String> linkedList = new LinkedList<>(Arrays.asList("a"));
+		List listCopy = j.as(List.class, linkedList);
+		assertEquals(ArrayList.class, listCopy.getClass());
+		assertEquals(linkedList, listCopy);
+		HashMap<String, Object> hashMap = new HashMap<>(mapOf("a", 1));
+		assertSame(hashMap, j.as(Map.class, hashMap));
+	}
+
+	@Test
+	public void testClassInfoCache() throws Exception {
+		JomniMapper j = new JomniBuilder().setClassInfoCacheMaxSize(2).build();
+
+		ClassInfo userInfo = j.getClassInfo(User.class);
+		assertSame(userInfo, j.getClassInfo(User.class));
+		ClassInfoCache.Stats stats = j.getClassInfoCacheStats();
+		assertEquals(1, stats.getMisses());
+		assertEquals(1, stats.getHits());
+
+		// the third class evicts the oldest one (User)
+		j.getClassInfo(Company.class);
+		j.getClassInfo(Product.class);
+		stats = j.getClassInfoCacheStats();
+		assertEquals(2, stats.getSize());
+		assertEquals(1, stats.getEvictions());
+		assertNotSame(userInfo, j.getClassInfo(User.class));
+
+		// built only once under concurrency
+		JomniMapper j2 = new JomniBuilder().build();
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		List<Future<ClassInfo>> futures = new ArrayList<>();
+		for (int i = 0; i < 32; i++) {
+			futures.add(executor.submit(() -> j2.getClassInfo(User.class)));
+		}
+		for (Future<ClassInfo> future : futures) {
+			assertSame(futures.get(0).get(), future.get());
+		}
+		executor.shutdown();
+		assertEquals(1, j2.getClassInfoCacheStats().getMisses());
+	}
+
+	@Test
+	public void testMapperClassUnloading() throws Exception {
+		JomniMapper j = new JomniBuilder().build();
+		WeakReference<ClassLoader> loaderRef = convertWithThrowawayLoader(j);
+		for (int i = 0; i < 50 && loaderRef.get() != null; i++) {
+			System.gc();
+			Thread.sleep(20);
+		}
+		// the mapper caches do not keep the class (and its classloader) alive
+		assertNull(loaderRef.get());
+		assertEquals("Nike", j.as(Company.class, mapOf("name", "Nike")).getName());
+	}
+
+	private static WeakReference<ClassLoader> convertWithThrowawayLoader(JomniMapper j) throws Exception {
+		ClassLoader loader = new IsolatedClassLoader(Company.class.getName());
+		Class companyClass = loader.loadClass(Company.class.getName());
+		assertNotSame(Company.class, companyClass);
+		Object company = j.as(companyClass, mapOf("name", "Nike"));
+		assertEquals("Nike", j.asMap(company).get("name"));
+		return new WeakReference<>(loader);
+	}
+
+	/**
+	 * Load its own copy of one class (the other classes from the parent classloader).
+	 */
+	private static class IsolatedClassLoader extends ClassLoader {
+		private final String className;
+
+		IsolatedClassLoader(String className) {
+			super(JomniMapperTest.class.getClassLoader());
+			this.className = className;
+		}
+
+		@Override
+		protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+			if (!name.equals(className)) {
+				return super.loadClass(name, resolve);
+			}
+			synchronized (getClassLoadingLock(name)) {
+				Class<?> cls = findLoadedClass(name);
+				if (cls == null) {
+					try (InputStream in = getParent().getResourceAsStream(name.replace('.', '/') + ".class")) {
+						ByteArrayOutputStream out = new ByteArrayOutputStream();
+						byte[] buffer = new byte[4096];
+						for (int n = in.read(buffer); n >= 0; n = in.read(buffer)) {
+							out.write(buffer, 0, n);
+						}
+						byte[] bytes = out.toByteArray();
+						cls = defineClass(name, bytes, 0, bytes.length);
+					} catch (IOException e) {
+						throw new ClassNotFoundException(name, e);
+					}
+				}
+				return cls;
+			}
+		}
+	}
+
+	@Test
+	public void testMapperImmutableTarget(){
+		JomniMapper j = new JomniBuilder().build();
+
+		// map to immutable object (with coercion)
+		Price price = j.as(Price.class, mapOf("currency", "USD", "amount", "1200"));
+		assertEquals("USD", price.getCurrency());
+		assertEquals(1200L, price.getAmount());
+
+		// missing primitive value get the default
+		price = j.as(Price.class, mapOf("currency", "EUR"));
+		assertEquals(0L, price.getAmount());
+
+		// immutable object to map, and back to immutable object
+		Map priceMap = j.asMap(new Price("USD", 12L));
+		assertEquals(12L, priceMap.get("amount"));
+		assertEquals(12L, j.as(Price.class, priceMap).getAmount());
+	}
+
+	@Test
+	public void testMapperNumbers(){
+		JomniMapper j = new JomniBuilder().build();
+
+		assertEquals(Integer.valueOf(12), j.as(Integer.class, 12L));
+		assertEquals(Long.valueOf(12L), j.as(Long.class, 12.0d));
+		assertEquals(Short.valueOf((short) 12), j.as(Short.class, new BigDecimal("12")));
+		assertEquals(new BigDecimal("12.12"), j.as(BigDecimal.class, 12.12d));
+		assertEquals(new BigDecimal("12"), j.as(BigDecimal.class, 12L));
+		assertEquals(Boolean.TRUE, j.as(Boolean.TYPE, Boolean.TRUE));
+
+		// primitive setters (from Integer, Long, BigDecimal, Boolean values)
+		Product product = j.as(Product.class, mapOf("id", 12, "stock", 3L, "price", new BigDecimal("1.5"), "active", true));
+		assertEquals(12L, product.getId());
+		assertEquals(3, product.getStock());
+		assertEquals(1.5, product.getPrice(), 0);
+		assertTrue(product.isActive());
+
+		// overflow checked by default (as for the String values)
+		try {
+			j.as(Integer.class, 3000000000L);
+			fail("should have thrown an ArithmeticException");
+		} catch (ArithmeticException e) {
+			// expected
+		}
+		try {
+			j.as(Long.class, 12.7d);
+			fail("should have thrown an ArithmeticException");
+		} catch (ArithmeticException e) {
+			// expected
+		}
+
+		// exact for the other Number types (no double rounding above 2^53)
+		assertEquals(Long.valueOf((1L << 53) + 1), j.as(Long.class, new AtomicLong((1L << 53) + 1)));
+		assertEquals(Integer.valueOf(7), j.as(Integer.class, new AtomicInteger(7)));
+		try {
+			j.as(Integer.class, new AtomicLong(3000000000L));
+			fail("should have thrown an ArithmeticException");
+		} catch (ArithmeticException e) {
+			// expected
+		}
+
+		// same for ExtraConverters.toNumber
+		assertEquals(Integer.valueOf(12), ExtraConverters.toNumber(12L, Integer.class));
+		try {
+			ExtraConverters.toNumber(3000000000L, Integer.class);
+			fail("should have thrown an ArithmeticException");
+		} catch (ArithmeticException e) {
+			// expected
+		}
+		try {
+			ExtraConverters.toNumber(12.7, Long.class);
+			fail("should have thrown an ArithmeticException");
+		} catch (ArithmeticException e) {
+			// expected
+		}
+
+		// unchecked, Java narrowing rules
+		JomniMapper unchecked = new JomniBuilder().setNumberOverflowCheck(false).build();
+		assertEquals(Integer.valueOf(-1294967296), unchecked.as(Integer.class, 3000000000L));
+		assertEquals(Long.valueOf(12L), unchecked.as(Long.class, 12.7d));
+	}
+
+	@Test
+	public void testMapperBulk(){
+		List<Map> userMaps = new ArrayList<>();
+		for (int i = 0; i < 10000; i++) {
+			userMaps.add(mapOf("id", i, "username", "user" + i, "since", "1997"));
+		}
+
+		for (JomniMapper j : new JomniMapper[]{new JomniBuilder().build(), new JomniBuilder().setParallelThreshold(100).build()}) {
+			List<User> users = j.asList(User.class, userMaps);
+			assertEquals(10000, users.size());
+			for (int i = 0; i < users.size(); i++) {
+				assertEquals(Long.valueOf(i), users.get(i).getId());
+			}
+
+			User[] userArray = j.asArray(User.class, userMaps);
+			assertEquals("user9999", userArray[9999].getUsername());
+
+			// unsized spliterator
+			List<User> evenUsers = j.mapAll(User.class, userMaps.stream().filter(m -> ((Integer) m.get("id")) % 2 == 0).spliterator());
+			assertEquals(5000, evenUsers.size());
+			assertEquals(Long.valueOf(9998), evenUsers.get(4999).getId());
+
+			// heterogeneous values
+			assertEquals(Arrays.asList(1L, 2L, null, 3L), j.asList(Long.class, Arrays.asList("1", 2, null, 3.0)));
+		}
+	}
+
+	@Test
+	public void testMapperRowMapper(){
+		JomniMapper j = new JomniBuilder().build();
+
+		RowMapper<User> rowMapper = j.rowMapper(User.class, "id", "username", "unknown", "since");
+		User user = rowMapper.map(new Object[]{12, "johnd", "ignored", "1997"});
+		Tests.validateUser(user);
+
+		// as function, with NamesValues
+		NamesValues namesValues = namesValuesOf(mapOf("id", 13L, "username", "jenw"));
+		List<User> users = Stream.<Object[]>of(namesValues.values).map(j.rowMapper(User.class, namesValues.names)).collect(toList());
+		assertEquals(Long.valueOf(13L), users.get(0).getId());
+		assertEquals("jenw", j.rowMapper(User.class, namesValues.names).map(namesValues).getUsername());
+
+		// immutable target
+		Price price = j.rowMapper(Price.class, "amount", "currency").map(new Object[]{"12", "USD"});
+		assertEquals(12L, price.getAmount());
+		assertEquals("USD", price.getCurrency());
 
-}
\ No newline at end of file
+		// null cells, primitive setters get the default value (as the creator arguments)
+		Product product = j.rowMapper(Product.class, "id", "stock", "active", "name").map(new Object[]{null, null, null, null});
+		assertEquals(0L, product.getId());
+		assertEquals(0, product.getStock());
+		assertFalse(product.isActive());
+		assertNull(product.getName());
+		assertEquals(0L, j.rowMapper(Price.class, "amount", "currency").map(new Object[]{null, "USD"}).getAmount());
+	}
+
+	@Test
+	public void testMapperCompactMaps(){
+		JomniMapper j = new JomniBuilder().setCompactMaps(true).build();
+		User user = Tests.makeUser();
+
+		// same content as a HashMap, and the key shape is shared per class
+		Map<String, Object> userMap = j.asMap(user);
+		assertTrue(userMap instanceof ShapeMap);
+		assertTrue(j.as(Map.class, user) instanceof ShapeMap);
+		assertTrue(j.as(HashMap.class, user) instanceof HashMap);
+		assertEquals(new JomniBuilder().build().asMap(user), userMap);
+		Tests.validateUser(userMap);
+
+		// updates and removes stay compact, new keys upgrade
+		ShapeMap compactMap = (ShapeMap) j.asCompactMap(user);
+		compactMap.put("username", "jenw");
+		compactMap.remove("since");
+		assertTrue(compactMap.isCompact());
+		assertFalse(compactMap.containsKey("since"));
+		assertEquals(userMap.size() - 1, compactMap.size());
+		compactMap.put("since", 1997);
+		compactMap.put("nickname", "jd");
+		assertFalse(compactMap.isCompact());
+		assertEquals(userMap.size() + 1, compactMap.size());
+		assertEquals("jenw", compactMap.get("username"));
+		assertEquals("jd", compactMap.get("nickname"));
+
+		// a new key put while iterating fails as with a HashMap
+		ShapeMap iteratedMap = (ShapeMap) j.asCompactMap(user);
+		Iterator<Map.Entry<String, Object>> it = iteratedMap.entrySet().iterator();
+		Map.Entry<String, Object> entry = it.next();
+		iteratedMap.put("nickname", "jd");
+		try {
+			it.next();
+			fail("should have thrown a ConcurrentModificationException");
+		} catch (ConcurrentModificationException e) {
+			// expected
+		}
+		try {
+			entry.getValue();
+			fail("should have thrown a ConcurrentModificationException");
+		} catch (ConcurrentModificationException e) {
+			// expected
+		}
+
+		// Map to Map is unchanged
+		assertTrue(j.as(Map.class, mapOf("a", 1)) instanceof HashMap);
+	}
+
+	@Test
+	public void testMapperDeepMapping(){
+		JomniMapper j = new JomniBuilder().setDeepMapping(true).build();
+
+		Map<String, Object> sharedUser = mapOf("username", "johnd", "since", "1997");
+		Map<String, Object> teamMap = mapOf("name", "core",
+				"members", Arrays.asList(mapOf("username", "jenw"), sharedUser, sharedUser),
+				"partners", mapOf("shoes", mapOf("name", "Nike")),
+				"admins", Arrays.asList(sharedUser));
+		// cycle
+		teamMap.put("parent", teamMap);
+
+		Team team = j.as(Team.class, teamMap);
+		assertEquals("core", team.getName());
+		assertSame(team, team.getParent());
+		// elements converted (with property coercion), and the shared source mapped once
+		List<User> members = team.getMembers();
+		assertEquals(3, members.size());
+		assertEquals("jenw", members.get(0).getUsername());
+		assertEquals(Integer.valueOf(1997), members.get(1).getSince());
+		assertSame(members.get(1), members.get(2));
+		assertSame(members.get(1), team.getAdmins()[0]);
+		assertEquals("Nike", team.getPartners().get("shoes").getName());
+
+		// POJO to POJO copies the containers (the elements already of the element type are kept, as with as())
+		Team copy = j.omni(new Team()).setAll(team).get();
+		assertNotSame(team.getMembers(), copy.getMembers());
+		assertSame(team.getMembers().get(0), copy.getMembers().get(0));
+		assertSame(copy.getMembers().get(1), copy.getAdmins()[0]);
+
+		// default mode sets the containers as is
+		Team shallow = new JomniBuilder().build().as(Team.class, team);
+		assertSame(team.getMembers(), shallow.getMembers());
+	}
+
+	@Test
+	public void testMapperPrimitiveArrays(){
+		JomniMapper j = new JomniBuilder().build();
+
+		// collections and object arrays to primitive arrays
+		assertArrayEquals(new long[]{1, 2, 3}, j.as(long[].class, Arrays.asList(1, 2L, "3")));
+		assertArrayEquals(new int[]{1, 2, 0}, j.as(int[].class, Arrays.asList(1.0, "2", null)));
+		assertArrayEquals(new double[]{1.5, 2}, j.as(double[].class, new Object[]{1.5, "2"}), 0);
+		assertArrayEquals(new long[]{7, 8}, j.as(long[].class, new String[]{"7", "8"}));
+		assertArrayEquals(new byte[]{1, -1}, j.as(byte[].class, Arrays.asList(1, -1)));
+
+		// primitive arrays to lists
+		assertEquals(Arrays.asList(1L, 2L), j.as(List.class, new long[]{1, 2}));
+		assertEquals(Arrays.asList(1.5), j.as(ArrayList.class, new double[]{1.5}));
+
+		// widening
+		assertArrayEquals(new long[]{1, 2}, j.as(long[].class, new int[]{1, 2}));
+		assertArrayEquals(new double[]{3, 4}, j.as(double[].class, new long[]{3, 4}), 0);
+		assertArrayEquals(new int[]{-1}, j.as(int[].class, new byte[]{-1}));
+
+		// checked by default, truncated when unchecked
+		assertArrayEquals(new int[]{1}, new JomniBuilder().setNumberOverflowCheck(false).build().as(int[].class, Arrays.asList(1.2)));
+		try {
+			j.as(int[].class, Arrays.asList(1, 1L << 40));
+			fail("should have thrown an ArithmeticException");
+		} catch (ArithmeticException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testMapperMetrics() throws Exception {
+		assertNull(new JomniBuilder().build().getMetrics());
+
+		String mbeanName = "org.jomni:type=JomniMetrics,name=testMapperMetrics";
+		JomniMapper j = new JomniBuilder().setMetricsMBeanName(mbeanName).build();
+		try {
+			for (int i = 0; i < 10; i++) {
+				j.as(Long.class, "12");
+				j.as(User.class, mapOf("username", "johnd"));
+			}
+			j.as(String.class, "identity");
+
+			JomniMetrics.Snapshot snapshot = j.getMetrics().snapshot();
+			assertEquals(1, snapshot.getIdentityCount());
+			assertEquals(10, snapshot.getConverterCount());
+			assertEquals(10, snapshot.getComplexCount());
+			assertEquals(3, snapshot.getResolutionMisses());
+			assertTrue(snapshot.getResolutionHits() >= 18);
+			assertTrue(snapshot.getClassInfoCacheStats().getMisses() > 0);
+
+			JomniMetrics.PairSnapshot pair = snapshot.getPair(String.class, Long.class);
+			assertEquals("converter", pair.getConvertType());
+			assertEquals(10, pair.getCount());
+			long histogramCount = 0;
+			for (long count : pair.getHistogram()) {
+				histogramCount += count;
+			}
+			assertEquals(10, histogramCount);
+			assertTrue(pair.getPercentileNanos(99) >= pair.getPercentileNanos(50));
+
+			// JMX
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			assertEquals(21L, server.getAttribute(new ObjectName(mbeanName), "ConversionCount"));
+			assertEquals(3, ((String[]) server.getAttribute(new ObjectName(mbeanName), "PairSummaries")).length);
+		} finally {
+			j.getMetrics().unregisterMBean();
+		}
+	}
+
+	@Test
+	public void testMapperListener(){
+		List<String> events = new ArrayList<>();
+		MapperListener listener = new MapperListener() {
+			@Override
+			public void afterAs(Class targetClass, Object value, Object result, long nanos) {
+				events.add("as " + targetClass.getSimpleName());
+			}
+
+			@Override
+			public void onAsError(Class targetClass, Object value, Throwable error) {
+				events.add("error " + targetClass.getSimpleName());
+			}
+
+			@Override
+			public void afterSetAll(Object target, Object source, long nanos) {
+				events.add("setAll");
+			}
+
+			@Override
+			public void onPropertySet(Object target, String propName, Object value, long nanos) {
+				events.add("set " + propName);
+			}
+		};
+
+		JomniMapper j = new JomniBuilder().setMapperListener(listener).build();
+		j.as(Long.class, "12");
+		j.as(User.class, mapOf("username", "johnd"));
+		j.omni(new User()).setAll(mapOf("since", "1997")).put("username", "jenw");
+		try {
+			j.as(Runnable.class, "fail");
+		} catch (MapperException e) {
+			// expected
+		}
+		assertEquals(Arrays.asList("as Long", "set username", "as User", "set since", "setAll", "set username", "error Runnable"), events);
+
+		// sampled
+		events.clear();
+		JomniMapper sampledMapper = new JomniBuilder().setMapperListener(listener, 0.1).build();
+		for (int i = 0; i < 10000; i++) {
+			sampledMapper.as(Long.class, "12");
+		}
+		assertTrue(events.size() > 500 && events.size() < 1500);
+
+		// not rounded to a 1 in N period (0.4 is not 1 in 3)
+		events.clear();
+		sampledMapper = new JomniBuilder().setMapperListener(listener, 0.4).build();
+		for (int i = 0; i < 10000; i++) {
+			sampledMapper.as(Long.class, "12");
+		}
+		assertTrue(events.size() > 3700 && events.size() < 4300);
+
+		// the property events follow the sampling of their call (none for the unsampled calls)
+		events.clear();
+		for (int i = 0; i < 1000; i++) {
+			sampledMapper.as(User.class, mapOf("username", "johnd", "since", "1997"));
+			sampledMapper.omni(new User()).setAll(mapOf("username", "jenw"));
+		}
+		assertEquals(Collections.frequency(events, "as User") + Collections.frequency(events, "setAll"), Collections.frequency(events, "set username"));
+		assertEquals(Collections.frequency(events, "as User"), Collections.frequency(events, "set since"));
+	}
+
+	@Test
+	public void testMapperClassAccessor(){
+		// Company_JomniAccessor is registered as a service (see test resources)
+		JomniMapper j = new JomniBuilder().build();
+		ClassInfo companyInfo = j.getClassInfo(Company.class);
+		assertTrue(companyInfo.getPropInfo("name").getReader() instanceof ClassAccessor.Property);
+		assertEquals("getName", companyInfo.getPropInfo("name").getReadMethod().getName());
+
+		Company company = j.as(Company.class, mapOf("name", "Nike"));
+		assertEquals("Nike", company.getName());
+		assertEquals(mapOf("name", "Nike"), j.asMap(company));
+
+		// introspection only
+		JomniMapper introspectionMapper = new JomniBuilder().setServiceAccessors(false).build();
+		assertFalse(introspectionMapper.getClassInfo(Company.class).getPropInfo("name").getReader() instanceof ClassAccessor.Property);
+	}
+
+	@Test
+	public void testMapperPropertyScan(){
+		JomniMapper j = new JomniBuilder().build();
+
+		// BaseEntity<Long> type variables are resolved
+		ClassInfo userInfo = j.getClassInfo(User.class);
+		assertEquals(Long.class, userInfo.getPropInfo("id").getType());
+		assertEquals(Long.class, userInfo.getPropInfo("optionalId").getGenericType().get());
+		assertEquals(Long.valueOf(12), j.as(User.class, mapOf("id", 12)).getId());
+
+		// chainable setter, is getter, and the properties sorted by name
+		ClassInfo productInfo = j.getClassInfo(Product.class);
+		assertNotNull(productInfo.getPropInfo("name").getWriter());
+		assertEquals("isActive", productInfo.getPropInfo("active").getReadMethod().getName());
+		assertEquals(Arrays.asList("active", "id", "name", "price", "stock"), new ArrayList<>(productInfo.getPropertyNames()));
+		assertEquals(2, productInfo.getPropInfo("name").getIndex());
+	}
+
+	@Test
+	public void testMapperPrewarm(){
+		JomniMapper j = new JomniBuilder().addPrewarmPackage("org.jomni.test.app")
+				.addPrewarmPair(HashMap.class, Team.class).build();
+		PrewarmReport report = j.getPrewarmReport();
+		assertTrue(report.getClassCount() >= 7);
+		assertEquals(1, report.getPairCount());
+		assertTrue(report.getErrors().isEmpty());
+
+		// the ClassInfo are already built
+		long misses = j.getClassInfoCacheStats().getMisses();
+		j.getClassInfo(User.class);
+		j.getClassInfo(Company.class);
+		assertEquals(misses, j.getClassInfoCacheStats().getMisses());
+		assertEquals(Long.valueOf(12), j.as(User.class, mapOf("id", 12)).getId());
+
+		// explicit prewarm, with a failure reported
+		report = new JomniBuilder().build().prewarm(Arrays.asList(User.class), Collections.emptyList(), Arrays.asList("org.jomni.test.nopackage"));
+		assertEquals(1, report.getClassCount());
+		assertEquals(Collections.singleton("org.jomni.test.nopackage"), report.getErrors().keySet());
+		assertNull(new JomniBuilder().build().getPrewarmReport());
+	}
+
+	@Test
+	public void testMapperFieldAccess(){
+		// field only class, not mappable by introspection
+		assertTrue(new JomniBuilder().build().getClassInfo(Message.class).getPropertyNames().isEmpty());
+
+		JomniMapper j = new JomniBuilder().addFieldAccessClasses(Message.class).build();
+		ClassInfo messageInfo = j.getClassInfo(Message.class);
+		assertEquals(Arrays.asList("id", "priority", "source", "tags", "text"), new ArrayList<>(messageInfo.getPropertyNames()));
+		assertEquals(String.class, messageInfo.getPropInfo("tags").getGenericType().get());
+		// final fields are read only
+		assertNull(messageInfo.getPropInfo("source").getWriter());
+
+		Message message = j.as(Message.class, mapOf("id", "12", "text", "hello", "priority", "3", "source", "other"));
+		assertEquals(Long.valueOf(12), message.id);
+		assertEquals("hello", message.text);
+		assertEquals(3, message.priority());
+		assertEquals(mapOf("id", 12L, "text", "hello", "priority", 3, "source", "app", "tags", null), j.asMap(message));
+
+		// global, the getter properties without field stay
+		JomniMapper fieldMapper = new JomniBuilder().setFieldAccess(true).build();
+		ClassInfo userInfo = fieldMapper.getClassInfo(User.class);
+		assertNotNull(userInfo.getPropInfo("username").getField());
+		assertEquals(Long.class, userInfo.getPropInfo("id").getType());
+		assertNotNull(userInfo.getPropInfo("optionalId").getReadMethod());
+		assertEquals("johnd", fieldMapper.as(User.class, mapOf("username", "johnd")).getUsername());
+	}
+}
@@ -3,17 +3,22 @@ package org.jomni.test;
 import org.jomni.JomniBuilder;
 import org.jomni.JomniMapper;
 import org.jomni.Omni;
+import org.jomni.Omni.SetterRule;
+import org.jomni.PropertyPath;
+import org.jomni.test.app.Company;
+import org.jomni.test.app.Product;
 import org.jomni.test.app.Tests;
 import org.jomni.test.app.User;
 import org.junit.Test;
 
 import java.time.LocalDateTime;
+import java.util.BitSet;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 import static org.jomni.util.Maps.mapOf;
-import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.assertNull;
+import static org.junit.Assert.*;
 
 public class JomniTest {
 
@@ -69,4 +74,199 @@ public class JomniTest {
 		assertNull(num);
 	}
 
-}
\ No newline at end of file
+	@Test
+	public void testPrimitiveProps() {
+		JomniMapper j = new JomniBuilder().build();
+
+		Product product = j.as(Product.class, mapOf("id", "12", "name", "shoe", "price", 12.5, "stock", 3L, "active", "true"));
+		assertEquals(12L, product.getId());
+		assertEquals("shoe", product.getName());
+		assertEquals(12.5, product.getPrice(), 0);
+		assertEquals(3, product.getStock());
+		assertEquals(true, product.isActive());
+
+		Map productMap = j.asMap(product);
+		assertEquals(12L, productMap.get("id"));
+		assertEquals("shoe", productMap.get("name"));
+		assertEquals(12.5, productMap.get("price"));
+		assertEquals(3, productMap.get("stock"));
+		assertEquals(true, productMap.get("active"));
+	}
+
+	@Test
+	public void testSetAllPojoToPojo() {
+		JomniMapper j = new JomniBuilder().build();
+
+		User source = Tests.makeUser();
+		source.setCompany(j.as(Company.class, mapOf("name", "Nike")));
+		User user = j.omni(new User()).setAll(source).get();
+		Tests.validateUser(user);
+		assertEquals("Nike", user.getCompany().getName());
+
+		// null values are set as well
+		user = j.omni(user).setAll(mapOf("username", null)).get();
+		assertNull(user.getUsername());
+		assertEquals(Integer.valueOf(1997), user.getSince());
+	}
+
+	@Test
+	public void testSetAllValueClassChange() {
+		JomniMapper j = new JomniBuilder().build();
+
+		// same source/target classes, but different value classes for the same property
+		assertEquals(Integer.valueOf(1997), j.as(User.class, mapOf("since", "1997")).getSince());
+		assertEquals(Integer.valueOf(1998), j.as(User.class, mapOf("since", 1998L)).getSince());
+		assertEquals(Integer.valueOf(1999), j.as(User.class, mapOf("since", 1999)).getSince());
+		assertEquals("Nike", j.as(User.class, mapOf("company", mapOf("name", "Nike"))).getCompany().getName());
+	}
+
+	@Test
+	public void testMapView() {
+		JomniMapper j = new JomniBuilder().build();
+
+		User user = Tests.makeUser();
+		Map<String, Object> userView = j.mapView(user);
+		Tests.validateUser(userView);
+		assertEquals(j.asMap(user), userView);
+		assertTrue(userView.containsKey("username"));
+		assertFalse(userView.containsKey("unknown"));
+
+		// live
+		user.setUsername("jenw");
+		assertEquals("jenw", userView.get("username"));
+
+		// read-only
+		try {
+			userView.put("username", "johnd");
+			fail("should have thrown an UnsupportedOperationException");
+		} catch (UnsupportedOperationException e) {
+			// expected
+		}
+
+		// write-through (with coercion)
+		Map<String, Object> writableView = j.mapView(user, true);
+		assertEquals("jenw", writableView.put("username", "johnd"));
+		writableView.put("since", "1997");
+		Tests.validateUser(user);
+	}
+
+	@Test
+	public void testOmniPropertyPath() {
+		JomniMapper j = new JomniBuilder().build();
+
+		// POJO root, with auto created intermediate
+		User user = Tests.makeUser();
+		Omni<User> userOmni = j.omni(user);
+		assertNull(userOmni.get("company.name"));
+		userOmni.put("company.name", "Nike");
+		assertEquals("Nike", user.getCompany().getName());
+		assertEquals("Nike", userOmni.get("company.name"));
+		assertNull(userOmni.get("company.unknown"));
+
+		// Map root, through a POJO
+		Map<String, Object> map = new HashMap<>();
+		map.put("user", user);
+		map.put("a.b", "flat");
+		Omni<Map> mapOmni = j.omni(map);
+		assertEquals("Nike", mapOmni.get("user.company.name"));
+		assertEquals("flat", mapOmni.get("a.b"));
+
+		// Map root put: nested only if the first segment exists, and coerced for POJO properties
+		mapOmni.put("user.since", "1997");
+		assertEquals(Integer.valueOf(1997), user.getSince());
+		mapOmni.put("x.y", 1);
+		assertEquals(1, map.get("x.y"));
+
+		// compiled and cached per root class and path
+		PropertyPath path = j.getPropertyPath(User.class, "company.name");
+		assertSame(path, j.getPropertyPath(User.class, "company.name"));
+		assertEquals("Nike", path.get(user));
+
+		// not cached for a Map root (payload keys), and bounded per POJO root class
+		assertNotSame(j.getPropertyPath(HashMap.class, "a.b"), j.getPropertyPath(HashMap.class, "a.b"));
+		for (int i = 0; i < 300; i++) {
+			assertNull(j.omni(user).get("company.unknown" + i));
+		}
+		assertNotSame(j.getPropertyPath(User.class, "company.unknown299"), j.getPropertyPath(User.class, "company.unknown299"));
+		assertSame(path, j.getPropertyPath(User.class, "company.name"));
+	}
+
+
+	@Test
+	public void testSetAllSetterRules() {
+		JomniMapper j = new JomniBuilder().build();
+
+		// changed_only: "johnd" and 1997 (coerced from "1997") are unchanged
+		Omni<User> omni = j.omni(Tests.makeUser());
+		omni.setAll(mapOf("username", "johnd", "since", "1997", "id", 13), SetterRule.changed_only);
+		assertEquals(Long.valueOf(13), omni.get().getId());
+		assertEquals(userBits(j, "id"), omni.getChangedProperties());
+
+		// not_nulls
+		omni.setAll(mapOf("username", null, "since", 2001), SetterRule.not_nulls);
+		assertEquals("johnd", omni.get().getUsername());
+		assertEquals(Integer.valueOf(2001), omni.get().getSince());
+		assertEquals(userBits(j, "since"), omni.getChangedProperties());
+
+		// no_override
+		User target = new User();
+		target.setUsername("jen");
+		Omni<User> targetOmni = j.omni(target).setAll(Tests.makeUser(), SetterRule.no_override);
+		assertEquals("jen", target.getUsername());
+		assertEquals(Long.valueOf(12), target.getId());
+		assertFalse(targetOmni.getChangedProperties().get(j.getClassInfo(User.class).getPropInfo("username").getIndex()));
+
+		// no_override, primitive default values count as not set
+		Product product = j.omni(new Product()).setAll(mapOf("stock", 5, "active", true), SetterRule.no_override).get();
+		assertEquals(5, product.getStock());
+		assertTrue(product.isActive());
+		j.omni(product).setAll(mapOf("stock", 7), SetterRule.no_override);
+		assertEquals(5, product.getStock());
+
+		// no rules, all the matching properties are written, but not tracked
+		omni.setAll(mapOf("username", "johnd"));
+		assertEquals("johnd", omni.get().getUsername());
+		assertNull(omni.getChangedProperties());
+
+		// Map target
+		Map map = j.omni(new HashMap(mapOf("a", 1, "b", 2))).setAll(mapOf("a", null, "b", 3, "c", 4), SetterRule.not_nulls, SetterRule.no_override).get();
+		assertEquals(mapOf("a", 1, "b", 2, "c", 4), map);
+	}
+
+	@Test
+	public void testSetAllMapShapes() {
+		JomniMapper j = new JomniBuilder().build();
+
+		// Map to POJO, fewer entries than properties (null values and unknown keys)
+		User user = j.omni(Tests.makeUser()).setAll(mapOf("username", null, "since", "2001", "unknown", 1)).get();
+		assertNull(user.getUsername());
+		assertEquals(Integer.valueOf(2001), user.getSince());
+		assertEquals(Long.valueOf(12), user.getId());
+
+		// Map to POJO, more entries than properties
+		Map<String, Object> bigMap = new HashMap<>();
+		for (int i = 0; i < 20; i++) {
+			bigMap.put("extra" + i, i);
+		}
+		bigMap.put("id", "13");
+		bigMap.put("username", "jen");
+		user = j.as(User.class, bigMap);
+		assertEquals(Long.valueOf(13), user.getId());
+		assertEquals("jen", user.getUsername());
+		assertNull(user.getSince());
+
+		// Map to Map, and POJO to Map
+		Map target = j.omni(new HashMap(mapOf("a", 1))).setAll(mapOf("b", 2, "c", null)).get();
+		assertEquals(mapOf("a", 1, "b", 2, "c", null), target);
+		assertEquals(mapOf("a", 1), j.as(LinkedHashMap.class, mapOf("a", 1)));
+		Tests.validateUser(j.as(HashMap.class, Tests.makeUser()));
+	}
+
+	private static BitSet userBits(JomniMapper j, String... names) {
+		BitSet bits = new BitSet();
+		for (String name : names) {
+			bits.set(j.getClassInfo(User.class).getPropInfo(name).getIndex());
+		}
+		return bits;
+	}
+}
@@ -2,12 +2,14 @@ package org.jomni.test;
 
 import org.jomni.JomniBuilder;
 import org.jomni.JomniMapper;
+import org.jomni.util.Maps.PathSchema;
 import org.junit.Test;
 
+import java.util.HashMap;
 import java.util.Map;
 
 import static org.jomni.util.Maps.*;
-import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.*;
 
 public class NestedAndFlattenMapTest {
 
@@ -30,4 +32,55 @@ public class NestedAndFlattenMapTest {
 		assertEquals(1964, flattenMap.get("company.info.since"));
 		assertEquals("Nike", flattenMap.get("company.name"));
 	}
+
+	@Test
+	public void nestedWideAndPathSchemaTest(){
+		// wide and deep flatten map
+		Map<String, Object> flattenMap = new HashMap<>();
+		for (int i = 0; i < 100; i++) {
+			flattenMap.put("prop" + i, i);
+			flattenMap.put("group" + (i % 20) + ".prop" + i, i);
+			flattenMap.put("group" + (i % 20) + ".item" + (i % 7) + ".prop" + i, i);
+		}
+
+		Map<String, Object> nestedMap = asNestedMap(flattenMap);
+		assertEquals(99, nestedMap.get("prop99"));
+		assertEquals(42, nestedValue(nestedMap, "group2.prop42"));
+		assertEquals(42, nestedValue(nestedMap, "group2.item0.prop42"));
+		assertEquals(flattenMap, asFlatMap(nestedMap));
+
+		// same with the compiled PathSchema (reused for the same key set)
+		PathSchema pathSchema = pathSchemaOf(flattenMap.keySet());
+		assertEquals(nestedMap, pathSchema.asNestedMap(flattenMap));
+		assertEquals(nestedMap, pathSchema.asNestedMap(new HashMap<>(flattenMap)));
+
+		// a key not in the schema falls back on asNestedMap
+		Map<String, Object> otherFlattenMap = new HashMap<>(flattenMap);
+		otherFlattenMap.put("other.name", "Nike");
+		assertEquals("Nike", nestedValue(pathSchema.asNestedMap(otherFlattenMap), "other.name"));
+	}
+
+	@Test
+	public void flatViewTest(){
+		Map orginalFlattenMap = mapOf("username", "john", "company.name", "Nike", "title", "Staff", "company.info.since", 1964);
+		Map<String, Object> nestedMap = asNestedMap(orginalFlattenMap);
+
+		Map<String, Object> flatView = flatView(nestedMap);
+		assertEquals("john", flatView.get("username"));
+		assertEquals(1964, flatView.get("company.info.since"));
+		assertEquals("Nike", flatView.get("company.name"));
+		assertNull(flatView.get("company"));
+		assertNull(flatView.get("company.info.unknown"));
+		assertTrue(flatView.containsKey("company.info.since"));
+		assertFalse(flatView.containsKey("company.info"));
+
+		// same entries as asFlatMap
+		assertEquals(4, flatView.size());
+		assertEquals(asFlatMap(nestedMap), flatView);
+		assertEquals(asFlatMap(nestedMap), new HashMap<>(flatView));
+
+		// live view
+		((Map) nestedMap.get("company")).put("name", "Adidas");
+		assertEquals("Adidas", flatView.get("company.name"));
+	}
 }
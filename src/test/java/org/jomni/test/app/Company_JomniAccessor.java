@@ -0,0 +1,39 @@
+package org.jomni.test.app;
+
+import org.jomni.ClassAccessor;
+
+/**
+ * Hand written equivalent of the jomni-processor generated accessor for Company (registered in
+ * META-INF/services/org.jomni.ClassAccessor).
+ */
+public final class Company_JomniAccessor implements ClassAccessor<Company> {
+
+	private static final ClassAccessor.Property[] PROPERTIES = {
+		new ClassAccessor.Property("name", String.class, null, "getName", "setName") {
+			@Override
+			public Object apply(Object obj) {
+				return ((Company) obj).getName();
+			}
+
+			@Override
+			public void accept(Object obj, Object value) {
+				((Company) obj).setName((String) value);
+			}
+		},
+	};
+
+	@Override
+	public Class<Company> getObjectClass() {
+		return Company.class;
+	}
+
+	@Override
+	public ClassAccessor.Property[] getProperties() {
+		return PROPERTIES.clone();
+	}
+
+	@Override
+	public Company newInstance() {
+		return new Company();
+	}
+}
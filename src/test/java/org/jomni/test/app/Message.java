@@ -0,0 +1,26 @@
+package org.jomni.test.app;
+
+import java.util.List;
+
+/**
+ * Field only class (no getters/setters), for the field access mode.
+ */
+public class Message {
+
+	public static final String TYPE = "message";
+
+	public Long id;
+	public String text;
+	public List<String> tags;
+	private int priority;
+	private final String source;
+	private transient Object cache;
+
+	public Message() {
+		this.source = "app";
+	}
+
+	public int priority() {
+		return priority;
+	}
+}
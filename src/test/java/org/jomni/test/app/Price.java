@@ -0,0 +1,26 @@
+package org.jomni.test.app;
+
+import org.jomni.JomniCreator;
+
+/**
+ * Immutable value class (no setters, created with its JomniCreator constructor).
+ */
+public class Price {
+
+	private final String currency;
+	private final long amount;
+
+	@JomniCreator({"currency", "amount"})
+	public Price(String currency, long amount) {
+		this.currency = currency;
+		this.amount = amount;
+	}
+
+	public String getCurrency() {
+		return currency;
+	}
+
+	public long getAmount() {
+		return amount;
+	}
+}
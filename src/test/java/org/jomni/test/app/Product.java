@@ -0,0 +1,54 @@
+package org.jomni.test.app;
+
+/**
+ * Entity with primitive properties (and a chainable setter).
+ */
+public class Product {
+
+	private long id;
+	private String name;
+	private double price;
+	private int stock;
+	private boolean active;
+
+	public long getId() {
+		return id;
+	}
+
+	public void setId(long id) {
+		this.id = id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public Product setName(String name) {
+		this.name = name;
+		return this;
+	}
+
+	public double getPrice() {
+		return price;
+	}
+
+	public void setPrice(double price) {
+		this.price = price;
+	}
+
+	public int getStock() {
+		return stock;
+	}
+
+	public void setStock(int stock) {
+		this.stock = stock;
+	}
+
+	public boolean isActive() {
+		return active;
+	}
+
+	public void setActive(boolean active) {
+		this.active = active;
+	}
+}
@@ -0,0 +1,53 @@
+package org.jomni.test.app;
+
+import java.util.List;
+import java.util.Map;
+
+public class Team {
+
+	private String name;
+	private Team parent;
+	private List<User> members;
+	private Map<String, Company> partners;
+	private User[] admins;
+
+	public String getName() {
+		return name;
+	}
+
+	public void setName(String name) {
+		this.name = name;
+	}
+
+	public Team getParent() {
+		return parent;
+	}
+
+	public void setParent(Team parent) {
+		this.parent = parent;
+	}
+
+	public List<User> getMembers() {
+		return members;
+	}
+
+	public void setMembers(List<User> members) {
+		this.members = members;
+	}
+
+	public Map<String, Company> getPartners() {
+		return partners;
+	}
+
+	public void setPartners(Map<String, Company> partners) {
+		this.partners = partners;
+	}
+
+	public User[] getAdmins() {
+		return admins;
+	}
+
+	public void setAdmins(User[] admins) {
+		this.admins = admins;
+	}
+}